@@ -0,0 +1,30 @@
+package com.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code 200} response body with the headers replayed on a hit. {@code storedAt} is reset when
+ * the upstream confirms the entry with a {@code 304}; {@code upstreamNanos} is how long the
+ * original upstream call took, i.e. what a hit saves. {@code freshNanos} is how long after
+ * {@code storedAt} the entry is served without revalidation (0 for {@code no-cache}). {@code varied} holds the request's values of
+ * the headers named in the response's {@code Vary}; the entry only answers requests that match them.
+ */
+record CachedResponse(String path, HttpHeaders headers, byte[] body, long storedAt, long upstreamNanos,
+                      long freshNanos, Map<String, List<String>> varied) {
+
+    String etag() {
+        return headers.getETag();
+    }
+
+    boolean matches(HttpHeaders requestHeaders) {
+        return varied.entrySet().stream()
+                .allMatch(header -> header.getValue().equals(requestHeaders.getOrEmpty(header.getKey())));
+    }
+
+    CachedResponse revalidated(long now, long freshNanos) {
+        return new CachedResponse(path, headers, body, now, upstreamNanos, freshNanos, varied);
+    }
+}
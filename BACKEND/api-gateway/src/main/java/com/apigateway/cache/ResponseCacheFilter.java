@@ -0,0 +1,382 @@
+package com.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches {@code 200} responses to authenticated GETs under {@code gateway.response-cache.paths}
+ * (the product catalog and stores), so repeated reads are answered without a hop to the service.
+ * <p>
+ * Entries are keyed by the caller's role claim, origin, path and query, never the token itself,
+ * so every user with the same role shares them. An entry is fresh for the response's
+ * {@code s-maxage}, or else its {@code max-age}; {@code no-cache} or no lifetime at all makes it stale
+ * from the start. A stale entry with an upstream {@code ETag} is revalidated with {@code If-None-Match}
+ * and a {@code 304} keeps serving the stored body, until the entry is evicted {@code stale-ttl} after
+ * it was stored or confirmed (longer lifetimes are cut to that); one without an {@code ETag} is fetched
+ * again. Responses marked {@code Cache-Control: no-store} or {@code private}, {@code Surrogate-Control: no-store}
+ * or {@code Vary: *} are never stored (Spring Security sends {@code no-store} by default, so the
+ * cacheable GETs set their own {@code Cache-Control}). An entry for a response with {@code Vary} only
+ * answers requests with the same values of the varied headers.
+ * The cache is bounded in bytes. A successful POST, PUT or DELETE through the gateway purges every
+ * entry under the same path prefix; writes that bypass the gateway are only picked up once the
+ * entry's lifetime is over.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+    public static final String CACHE_HEADER = "X-Cache";
+    public static final String SURROGATE_CONTROL = "Surrogate-Control";
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+    // Per-connection or per-user headers that must not be replayed to other callers
+    private static final Set<String> UNCACHED_HEADERS = Set.of(HttpHeaders.SET_COOKIE, HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.DATE, CACHE_HEADER, SURROGATE_CONTROL);
+
+    private final boolean enabled;
+    private final List<String> paths;
+    private final int maxBodySize;
+    private final Cache<String, CachedResponse> cache;
+    // ✅ Bumped on every purge; a miss started before the purge does not store what it fetched
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+    private final Counter purges;
+    private final Timer savedUpstream;
+
+    public ResponseCacheFilter(@Value("${gateway.response-cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.response-cache.paths:/products,/stores}") List<String> paths,
+                               @Value("${gateway.response-cache.stale-ttl:10m}") Duration staleTtl,
+                               @Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${gateway.response-cache.max-body-size:1048576}") int maxBodySize,
+                               MeterRegistry registry) {
+        this.enabled = enabled;
+        this.paths = paths;
+        this.maxBodySize = maxBodySize;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfterWrite(staleTtl)
+                .build();
+
+        this.hits = requests(registry, "hit");
+        this.revalidations = requests(registry, "revalidated");
+        this.misses = requests(registry, "miss");
+        this.purges = Counter.builder("gateway.cache.purges")
+                .description("Cache purges caused by writes through the gateway")
+                .register(registry);
+        this.savedUpstream = Timer.builder("gateway.cache.saved")
+                .description("Upstream latency avoided by cache hits")
+                .register(registry);
+        Gauge.builder("gateway.cache.hit.ratio", this, ResponseCacheFilter::hitRatio)
+                .description("Share of cacheable GETs answered without an upstream call")
+                .register(registry);
+        Gauge.builder("gateway.cache.entries", cache, Cache::estimatedSize)
+                .description("Cached responses")
+                .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("gateway.cache.requests")
+                .description("Cacheable GETs by cache outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + revalidations.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String prefix = prefixOf(request.getPath().value());
+        if (!enabled || prefix == null) {
+            return chain.filter(exchange);
+        }
+        HttpMethod method = request.getMethod();
+        if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.DELETE || method == HttpMethod.PATCH) {
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                // POST /products/exists and friends are reads; only successful writes change what is cached
+                if (status != null && status.is2xxSuccessful() && !request.getPath().value().endsWith("/exists")) {
+                    purge(prefix);
+                }
+            });
+        }
+        if (method != HttpMethod.GET || request.getHeaders().getCacheControl() != null
+                && request.getHeaders().getCacheControl().contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(authentication -> String.valueOf(((JwtAuthenticationToken) authentication).getToken().getClaimAsString("role")))
+                .map(role -> cacheKey(role, request))
+                .map(key -> lookup(exchange, chain, prefix, key))
+                .defaultIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+                .flatMap(result -> result);
+    }
+
+    private Mono<Void> lookup(ServerWebExchange exchange, GatewayFilterChain chain, String prefix, String key) {
+        ServerHttpRequest request = exchange.getRequest();
+        CachedResponse entry = cache.getIfPresent(key);
+        // Another variant of the response (see Vary) is a miss, and the fetched one replaces it
+        CachedResponse cached = entry != null && entry.matches(request.getHeaders()) ? entry : null;
+        boolean forceRevalidation = request.getHeaders().getCacheControl() != null
+                && request.getHeaders().getCacheControl().contains("no-cache");
+
+        if (cached != null && !forceRevalidation && System.nanoTime() - cached.storedAt() < cached.freshNanos()) {
+            hits.increment();
+            savedUpstream.record(Duration.ofNanos(cached.upstreamNanos()));
+            return writeCached(exchange.getResponse(), request, cached, "HIT");
+        }
+
+        long generation = generation(prefix).get();
+        long started = System.nanoTime();
+        if (cached != null && cached.etag() != null) {
+            // ✅ Stale with an ETag: ask the service whether it changed instead of fetching it again
+            revalidations.increment();
+            ServerWebExchange conditional = exchange.mutate()
+                    .request(builder -> builder.headers(headers -> headers.setIfNoneMatch(cached.etag())))
+                    .response(new CapturingResponse(exchange, key, prefix, generation, started, cached))
+                    .build();
+            return chain.filter(conditional);
+        }
+
+        misses.increment();
+        return chain.filter(exchange.mutate()
+                .response(new CapturingResponse(exchange, key, prefix, generation, started, null))
+                .build());
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, ServerHttpRequest request, CachedResponse cached, String outcome) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(CACHE_HEADER, outcome);
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.ofNanos(System.nanoTime() - cached.storedAt()).toSeconds()));
+        String etag = cached.etag();
+        if (etag != null && request.getHeaders().getIfNoneMatch().contains(etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    void purge(String prefix) {
+        generation(prefix).incrementAndGet();
+        cache.asMap().values().removeIf(response -> prefixOf(response.path()).equals(prefix));
+        purges.increment();
+        logger.debug("Purged cached responses under {}", prefix);
+    }
+
+    private AtomicLong generation(String prefix) {
+        return generations.computeIfAbsent(prefix, p -> new AtomicLong());
+    }
+
+    private String prefixOf(String path) {
+        for (String prefix : paths) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    // Responses vary by Origin through the services' CORS headers
+    private static String cacheKey(String role, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return role + ' ' + request.getHeaders().getOrigin() + ' ' + request.getPath().value() + (query != null ? '?' + query : "");
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        String surrogateControl = headers.getFirst(SURROGATE_CONTROL);
+        if (surrogateControl != null && surrogateControl.contains("no-store")) {
+            return false;
+        }
+        // private: the response is for this caller only, even when another caller has the same role
+        return !hasDirective(headers.getCacheControl(), "no-store") && !hasDirective(headers.getCacheControl(), "private")
+                && !headers.getVary().contains("*");
+    }
+
+    // How long a response may be served without asking the service: s-maxage is meant for shared
+    // caches like this one and wins over max-age; no-cache means never
+    private static long freshNanos(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (hasDirective(cacheControl, "no-cache")) {
+            return 0;
+        }
+        long seconds = directiveSeconds(cacheControl, "s-maxage");
+        if (seconds < 0) {
+            seconds = directiveSeconds(cacheControl, "max-age");
+        }
+        return seconds < 0 ? 0 : TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        return directiveValue(cacheControl, directive) != null;
+    }
+
+    private static long directiveSeconds(String cacheControl, String directive) {
+        String value = directiveValue(cacheControl, directive);
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // The directive's argument, "" for a directive without one, or null when it is absent
+    private static String directiveValue(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return null;
+        }
+        for (String part : cacheControl.split(",")) {
+            String name = part.trim();
+            int equals = name.indexOf('=');
+            if ((equals < 0 ? name : name.substring(0, equals).trim()).equalsIgnoreCase(directive)) {
+                return equals < 0 ? "" : name.substring(equals + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies a {@code 200} body into the cache while it streams to the client, and turns the
+     * upstream's {@code 304} to a revalidation into the stored response.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+        private final ServerHttpRequest request;
+        private final String key;
+        private final String prefix;
+        private final long generation;
+        private final long started;
+        private final CachedResponse stale;
+
+        CapturingResponse(ServerWebExchange exchange, String key, String prefix, long generation, long started, CachedResponse stale) {
+            super(exchange.getResponse());
+            this.request = exchange.getRequest();
+            this.key = key;
+            this.prefix = prefix;
+            this.generation = generation;
+            this.started = started;
+            this.stale = stale;
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            // A 304 completed without a body still has to be turned into the stored response
+            return isRevalidated(getStatusCode()) ? writeWith(Flux.empty()) : super.setComplete();
+        }
+
+        private boolean isRevalidated(HttpStatusCode status) {
+            return stale != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (isRevalidated(status)) {
+                // The 304 may carry a new lifetime; without Cache-Control the stored one still holds
+                long freshNanos = getHeaders().getCacheControl() != null ? freshNanos(getHeaders()) : stale.freshNanos();
+                CachedResponse confirmed = stale.revalidated(System.nanoTime(), freshNanos);
+                if (!isStorable(getHeaders())) {
+                    cache.invalidate(key);
+                } else if (generation(prefix).get() == generation) {
+                    cache.put(key, confirmed);
+                }
+                getHeaders().clear();
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(writeCached(getDelegate(), request, confirmed, "REVALIDATED"));
+            }
+            long freshNanos = freshNanos(getHeaders());
+            // Without a lifetime or an ETag to revalidate with, a stored copy could never be used
+            if (status == null || status.value() != HttpStatus.OK.value() || !isStorable(getHeaders())
+                    || freshNanos == 0 && getHeaders().getETag() == null) {
+                return super.writeWith(body);
+            }
+
+            getHeaders().set(CACHE_HEADER, "MISS");
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            boolean[] tooLarge = {false};
+            Flux<? extends DataBuffer> copying = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (tooLarge[0] || captured.size() + length > maxBodySize) {
+                            tooLarge[0] = true;
+                            return;
+                        }
+                        ByteBuffer copy = ByteBuffer.allocate(length);
+                        buffer.toByteBuffer(buffer.readPosition(), copy, 0, length);
+                        captured.write(copy.array(), 0, length);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLarge[0] && generation(prefix).get() == generation) {
+                            HttpHeaders headers = new HttpHeaders();
+                            getHeaders().forEach((name, values) -> {
+                                if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                                    headers.put(name, values);
+                                }
+                            });
+                            Map<String, List<String>> varied = new HashMap<>();
+                            getHeaders().getVary().forEach(name -> varied.put(name, request.getHeaders().getOrEmpty(name)));
+                            cache.put(key, new CachedResponse(request.getPath().value(), HttpHeaders.readOnlyHttpHeaders(headers),
+                                    captured.toByteArray(), System.nanoTime(), System.nanoTime() - started, freshNanos, varied));
+                        }
+                    });
+            return super.writeWith(copying);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // Wraps the response before NettyWriteResponseFilter writes the upstream body into it
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+}
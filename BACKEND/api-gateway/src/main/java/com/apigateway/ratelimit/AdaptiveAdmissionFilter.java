@@ -0,0 +1,136 @@
+package com.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load shedding in front of each route: requests beyond the route's {@link AdaptiveConcurrencyLimit}
+ * get an immediate {@code 429} instead of waiting in the service's queues, where they would push up
+ * latency for everyone. Runs after the per-user rate limits, so callers rejected there never take a
+ * slot. A request gives its slot back when the gateway commits the response headers, and that time
+ * is the latency fed into the limit; a streamed body ({@code text/event-stream}, NDJSON) does not keep
+ * the slot for as long as the stream stays open. WebSocket sessions are not counted at all.
+ */
+@Component
+public class AdaptiveAdmissionFilter implements GlobalFilter, Ordered {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveAdmissionFilter.class);
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int window;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteAdmission> routes = new ConcurrentHashMap<>();
+
+    public AdaptiveAdmissionFilter(@Value("${gateway.admission.enabled:true}") boolean enabled,
+                                   @Value("${gateway.admission.initial-limit:50}") int initialLimit,
+                                   @Value("${gateway.admission.min-limit:10}") int minLimit,
+                                   @Value("${gateway.admission.max-limit:500}") int maxLimit,
+                                   @Value("${gateway.admission.tolerance:1.5}") double tolerance,
+                                   @Value("${gateway.admission.smoothing:0.2}") double smoothing,
+                                   @Value("${gateway.admission.backoff-ratio:0.9}") double backoffRatio,
+                                   @Value("${gateway.admission.window:100}") int window,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.window = window;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+
+        RouteAdmission admission = routes.computeIfAbsent(route.getId(), this::newRoute);
+        if (!admission.limit.tryAcquire()) {
+            admission.rejected.increment();
+            logger.debug("Shedding request to {}: {} in flight", route.getId(), admission.limit.inFlight());
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+
+        long started = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        exchange.getResponse().beforeCommit(() -> {
+            release(admission, exchange, started, released, false);
+            return Mono.empty();
+        });
+        // Requests that end without committing a response (errors, timeouts, cancellations)
+        return chain.filter(exchange)
+                .doFinally(signal -> release(admission, exchange, started, released, signal == SignalType.CANCEL));
+    }
+
+    private static void release(RouteAdmission admission, ServerWebExchange exchange, long started,
+                                AtomicBoolean released, boolean cancelled) {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        // ✅ Errors, timeouts and the service's own overload answers all mean "back off";
+        // a client that hung up says nothing about the service
+        boolean failed = !cancelled && (status == null || status.is5xxServerError()
+                || status.value() == HttpStatus.TOO_MANY_REQUESTS.value());
+        admission.limit.release(System.nanoTime() - started, failed);
+    }
+
+    private RouteAdmission newRoute(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                tolerance, smoothing, backoffRatio, window);
+        Gauge.builder("gateway.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.inflight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests currently admitted to the route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.admission.rejected")
+                .description("Requests shed with 429 because the route was at its limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return new RouteAdmission(limit, rejected);
+    }
+
+    private record RouteAdmission(AdaptiveConcurrencyLimit limit, Counter rejected) {
+    }
+
+    @Override
+    public int getOrder() {
+        // After the routes' own filters (RequestRateLimiter), before the request is sent
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one route that follows the latency it causes, in the style of the
+ * gradient limiters from Netflix's concurrency-limits. A long-term average RTT is compared with
+ * each new sample: while responses are no slower than {@code tolerance} times the average the limit
+ * grows by about its square root, and once they slow down (the downstream started queueing) it
+ * shrinks in proportion. Failures cut it by {@code backoffRatio}.
+ */
+final class AdaptiveConcurrencyLimit {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int window;
+    private volatile double limit;
+    private double longRttNanos;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                             double backoffRatio, int window) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.window = window;
+    }
+
+    /**
+     * Takes a slot, or returns {@code false} when the route is at its limit.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot and feeds the request's round trip into the limit.
+     */
+    void release(long rttNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, failed, inFlightBefore);
+    }
+
+    private synchronized void update(long rttNanos, boolean failed, int inFlightBefore) {
+        double current = limit;
+        if (failed) {
+            limit = Math.max(minLimit, current * backoffRatio);
+            return;
+        }
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / window;
+        // Far below the average means the overload is over; let the average follow faster
+        if (longRttNanos > 2.0 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+        // Too little traffic to tell whether a higher limit would be safe
+        if (inFlightBefore < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double next = current * gradient + Math.sqrt(current);
+        next = current * (1 - smoothing) + next * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
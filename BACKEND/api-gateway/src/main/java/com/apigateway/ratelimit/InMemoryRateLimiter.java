@@ -0,0 +1,140 @@
+package com.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process replacement for Spring Cloud Gateway's Redis rate limiter, used by the
+ * {@code RequestRateLimiter} filter. Each route configures its limits in application.yml under
+ * {@code in-memory-rate-limiter.*}; every caller (see {@link RateLimitConfig#userKeyResolver}) gets
+ * its own {@link TokenBucket} per route, and {@code route-replenish-rate} optionally caps the route
+ * as a whole. Limits are per gateway instance.
+ * <p>
+ * Idle buckets are dropped after {@code gateway.rate-limit.idle-timeout}; a bucket idle that long
+ * has refilled anyway as long as the timeout exceeds {@code burst-capacity / replenish-rate}.
+ */
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public InMemoryRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry,
+                               @Value("${gateway.rate-limit.max-buckets:100000}") long maxBuckets,
+                               @Value("${gateway.rate-limit.idle-timeout:5m}") Duration idleTimeout) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().get(routeId);
+        if (config == null || config.getReplenishRate() <= 0) {
+            // Routes without RequestRateLimiter args are not limited
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        long now = System.nanoTime();
+        int tokens = config.getRequestedTokens();
+        long userInterval = intervalNanos(config.getReplenishRate());
+        TokenBucket user = buckets.get(routeId + '\u0000' + id, key -> new TokenBucket());
+        boolean routeLimited = config.getRouteReplenishRate() > 0;
+        long routeInterval = routeLimited ? intervalNanos(config.getRouteReplenishRate()) : 0;
+        TokenBucket route = routeLimited ? buckets.get(routeId, key -> new TokenBucket()) : null;
+
+        // ✅ Both buckets are checked before either is charged, so a request the route-wide cap
+        // rejects does not also cost the caller a token
+        long remaining = user.peek(now, tokens, userInterval, config.getBurstCapacity());
+        String rejectedBy = remaining < 0 ? "user" : null;
+        if (rejectedBy == null && routeLimited) {
+            long routeRemaining = route.peek(now, tokens, routeInterval, config.getRouteBurstCapacity());
+            if (routeRemaining < 0) {
+                remaining = routeRemaining;
+                rejectedBy = "route";
+            }
+        }
+        if (rejectedBy == null) {
+            // Concurrent requests may have taken the tokens since the check; the route's are
+            // charged first and given back if the caller's own bucket then comes up short
+            long routeRemaining = routeLimited ? route.tryConsume(now, tokens, routeInterval, config.getRouteBurstCapacity()) : 0;
+            if (routeRemaining < 0) {
+                remaining = routeRemaining;
+                rejectedBy = "route";
+            } else {
+                remaining = user.tryConsume(now, tokens, userInterval, config.getBurstCapacity());
+                if (remaining < 0) {
+                    rejectedBy = "user";
+                    if (routeLimited) {
+                        route.refund(tokens, routeInterval);
+                    }
+                }
+            }
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REPLENISH_RATE_HEADER, BigDecimal.valueOf(config.getReplenishRate()).stripTrailingZeros().toPlainString());
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        if (remaining >= 0) {
+            headers.put(REMAINING_HEADER, String.valueOf(remaining));
+            return Mono.just(new Response(true, headers));
+        }
+        headers.put(REMAINING_HEADER, "0");
+        long waitNanos = -remaining - 1;
+        headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        meterRegistry.counter("gateway.ratelimit.rejected", "route", routeId, "limit", rejectedBy).increment();
+        return Mono.just(new Response(false, headers));
+    }
+
+    private static long intervalNanos(double ratePerSecond) {
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+    }
+
+    /**
+     * Per-route limits, bound from the {@code in-memory-rate-limiter.*} filter args.
+     */
+    public static class Config {
+        // Tokens per second and bucket size for each caller
+        private double replenishRate;
+        private long burstCapacity = 1;
+        private int requestedTokens = 1;
+        // Optional cap on all callers of the route together; 0 disables it
+        private double routeReplenishRate;
+        private long routeBurstCapacity = 1;
+
+        public double getReplenishRate() { return replenishRate; }
+        public void setReplenishRate(double replenishRate) { this.replenishRate = replenishRate; }
+
+        public long getBurstCapacity() { return burstCapacity; }
+        public void setBurstCapacity(long burstCapacity) { this.burstCapacity = burstCapacity; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public void setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; }
+
+        public double getRouteReplenishRate() { return routeReplenishRate; }
+        public void setRouteReplenishRate(double routeReplenishRate) { this.routeReplenishRate = routeReplenishRate; }
+
+        public long getRouteBurstCapacity() { return routeBurstCapacity; }
+        public void setRouteBurstCapacity(long routeBurstCapacity) { this.routeBurstCapacity = routeBurstCapacity; }
+    }
+}
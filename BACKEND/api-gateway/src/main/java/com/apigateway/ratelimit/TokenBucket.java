@@ -0,0 +1,53 @@
+package com.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count and a refill timestamp it keeps
+ * one "theoretical arrival time", the moment the bucket would be full again, and updates it with a
+ * single compare-and-set. A request costing {@code n} tokens is allowed when pushing that time
+ * {@code n} intervals further does not put it more than {@code burstCapacity} intervals ahead of now.
+ */
+final class TokenBucket {
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @return tokens left after taking {@code tokens}, or {@code -(nanos until they are available) - 1}
+     * when the bucket does not hold enough
+     */
+    long tryConsume(long now, int tokens, long intervalNanos, long burstCapacity) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long remaining = remainingAfter(current, now, tokens, intervalNanos, burstCapacity);
+            if (remaining < 0) {
+                return remaining;
+            }
+            if (theoreticalArrival.compareAndSet(current, Math.max(current, now) + intervalNanos * tokens)) {
+                return remaining;
+            }
+        }
+    }
+
+    /**
+     * What {@link #tryConsume} would return right now, without taking anything.
+     */
+    long peek(long now, int tokens, long intervalNanos, long burstCapacity) {
+        return remainingAfter(theoreticalArrival.get(), now, tokens, intervalNanos, burstCapacity);
+    }
+
+    /**
+     * Gives back tokens taken by {@link #tryConsume}.
+     */
+    void refund(int tokens, long intervalNanos) {
+        theoreticalArrival.addAndGet(-intervalNanos * tokens);
+    }
+
+    private static long remainingAfter(long theoreticalArrival, long now, int tokens, long intervalNanos, long burstCapacity) {
+        long tolerance = intervalNanos * burstCapacity;
+        long ahead = Math.max(theoreticalArrival, now) + intervalNanos * tokens - now;
+        if (ahead > tolerance) {
+            return -(ahead - tolerance) - 1;
+        }
+        return (tolerance - ahead) / intervalNanos;
+    }
+}
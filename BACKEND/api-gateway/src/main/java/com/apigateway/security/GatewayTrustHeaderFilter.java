@@ -0,0 +1,71 @@
+package com.apigateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Tells downstream services that the gateway already verified the bearer token by adding
+ * {@value #HEADER} = Base64url(HMAC-SHA256(shared secret, token)) to routed requests. Services
+ * configured with the same {@code security.gateway-trust.secret} then skip their own RSA check.
+ * The header is always stripped from incoming requests so clients cannot supply their own.
+ */
+@Component
+public class GatewayTrustHeaderFilter implements GlobalFilter, Ordered {
+    public static final String HEADER = "X-Gateway-Token-Mac";
+
+    private final SecretKeySpec key;
+
+    public GatewayTrustHeaderFilter(@Value("${security.gateway-trust.secret:}") String secret) {
+        this.key = secret.isBlank() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerWebExchange stripped = exchange.mutate()
+                .request(request -> request.headers(headers -> headers.remove(HEADER)))
+                .build();
+        if (key == null) {
+            return chain.filter(stripped);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(authentication -> ((JwtAuthenticationToken) authentication).getToken().getTokenValue())
+                .map(token -> stripped.mutate()
+                        .request(request -> request.headers(headers -> headers.set(HEADER, sign(token))))
+                        .build())
+                .defaultIfEmpty(stripped)
+                .flatMap(chain::filter);
+    }
+
+    String sign(String token) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            byte[] signature = mac.doFinal(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -2,47 +2,75 @@ package com.apigateway.security;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.oauth2.server.resource.web.server.authentication.ServerBearerTokenAuthenticationConverter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveJwtDecoder jwtDecoder) {
         http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/auth/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/actuator/prometheus").permitAll()
+                        // ✅ Service-to-service replication feeds are never exposed through the gateway
+                        .pathMatchers("/products/events", "/stores/events").denyAll()
                         .pathMatchers(HttpMethod.PUT, "/inventory/**").hasAnyRole("ADMIN", "EMPLOYEE")
+                        .pathMatchers(HttpMethod.POST, "/inventory/movements/batch").hasAnyRole("ADMIN", "EMPLOYEE")
+                        // ✅ Live stock changes (SSE and WebSocket) for the dashboards
+                        .pathMatchers(HttpMethod.GET, "/inventory/changes", "/inventory/changes/ws").hasAnyRole("ADMIN", "EMPLOYEE")
 
                         // ✅ Only Admins can view movements & metrics
                         .pathMatchers(HttpMethod.GET, "/inventory/movements").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/inventory/movements/page").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/inventory/movements/stream").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.GET, "/inventory/movements/metrics").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/inventory/movements/metrics/breakdown").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/inventory/movements/metrics/rollup/check").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.POST, "/inventory/movements/metrics/rollup/backfill").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.POST, "/inventory/movements/metrics/rollup/repair").hasRole("ADMIN")
 
                         // ✅ Employees & Admins can view & manage products
                         .pathMatchers(HttpMethod.GET, "/products/**").hasAnyRole("ADMIN", "EMPLOYEE")
+                        .pathMatchers(HttpMethod.POST, "/products/exists").hasAnyRole("ADMIN", "EMPLOYEE")
                         .pathMatchers(HttpMethod.POST, "/products").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PUT, "/products/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.DELETE, "/products/**").hasRole("ADMIN")
 
                         // ✅ Stores Service (Admin Only)
                         .pathMatchers(HttpMethod.GET, "/stores/**").hasAnyRole("ADMIN", "EMPLOYEE")
+                        .pathMatchers(HttpMethod.POST, "/stores/exists").hasAnyRole("ADMIN", "EMPLOYEE")
                         .pathMatchers(HttpMethod.POST, "/stores").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PUT, "/stores/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.DELETE, "/stores/**").hasRole("ADMIN")
                         .anyExchange().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtDecoder(jwtDecoder())))
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenConverter(bearerTokenConverter())
+                        .jwt(jwt -> jwt
+                                .jwtDecoder(jwtDecoder)
+                                .jwtAuthenticationConverter(jwtAuthenticationConverter())))
                 .exceptionHandling(exceptionHandling -> exceptionHandling
                         .authenticationEntryPoint((exchange, ex) -> {
                             logger.error("Unauthorized access: {}", ex.getMessage());
@@ -56,8 +84,36 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // ✅ EventSource and browser WebSockets cannot send headers, so only the change stream also takes ?access_token=
+    private static ServerAuthenticationConverter bearerTokenConverter() {
+        ServerBearerTokenAuthenticationConverter headerOnly = new ServerBearerTokenAuthenticationConverter();
+        ServerBearerTokenAuthenticationConverter headerOrQuery = new ServerBearerTokenAuthenticationConverter();
+        headerOrQuery.setAllowUriQueryParameter(true);
+        return exchange -> exchange.getRequest().getPath().value().startsWith("/inventory/changes")
+                ? headerOrQuery.convert(exchange)
+                : headerOnly.convert(exchange);
+    }
+
+    // ✅ Same "role" claim → ROLE_* mapping as the services, so the role matchers above apply
+    private ReactiveJwtAuthenticationConverterAdapter jwtAuthenticationConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            String role = jwt.getClaimAsString("role");
+            return role == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+        });
+        return new ReactiveJwtAuthenticationConverterAdapter(converter);
+    }
+
     @Bean
-    public ReactiveJwtDecoder jwtDecoder() {
-        return NimbusReactiveJwtDecoder.withJwkSetUri("http://localhost:8080/oauth2/jwks").build();
+    public ReactiveJwtDecoder jwtDecoder(@Value("${security.jwt-cache.max-size:10000}") long cacheSize,
+                                         @Value("${security.jwt-cache.max-ttl:5m}") Duration cacheTtl) {
+        // ✅ auth-service signs with RS256 or ES256 depending on its key; key IDs are stable across its restarts
+        ReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri("http://localhost:8080/oauth2/jwks")
+                .jwsAlgorithms(algorithms -> {
+                    algorithms.add(SignatureAlgorithm.RS256);
+                    algorithms.add(SignatureAlgorithm.ES256);
+                })
+                .build();
+        return cacheSize > 0 ? new CachingReactiveJwtDecoder(decoder, cacheSize, cacheTtl) : decoder;
     }
 }
\ No newline at end of file
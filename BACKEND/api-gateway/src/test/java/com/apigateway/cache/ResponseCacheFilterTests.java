@@ -0,0 +1,203 @@
+package com.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The cache in front of a stand-in upstream that answers every GET with a numbered body, so a
+ * repeated body means the second caller was served from the cache.
+ */
+class ResponseCacheFilterTests {
+
+	private static final String ORIGIN = "http://localhost:5173";
+
+	private final ResponseCacheFilter filter = new ResponseCacheFilter(true, List.of("/products", "/stores"),
+			Duration.ofMinutes(10), 1 << 20, 1 << 16, new SimpleMeterRegistry());
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private final AtomicInteger conditionalCalls = new AtomicInteger();
+	private final HttpHeaders upstreamHeaders = new HttpHeaders();
+
+	private final GatewayFilterChain upstream = exchange -> {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.OK);
+		if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+			return response.setComplete();
+		}
+		response.getHeaders().addAll(upstreamHeaders);
+		String etag = upstreamHeaders.getETag();
+		if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+			conditionalCalls.incrementAndGet();
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			return response.setComplete();
+		}
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		byte[] body = ("[" + upstreamCalls.incrementAndGet() + "]").getBytes(StandardCharsets.UTF_8);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+	};
+
+	@BeforeEach
+	void setUp() {
+		// What the services send on catalog and store reads
+		upstreamHeaders.setCacheControl("max-age=0, s-maxage=30, public");
+	}
+
+	@Test
+	void repeatedGetIsAnsweredFromTheCache() {
+		MockServerHttpResponse miss = send(MockServerHttpRequest.get("/products/1").header(HttpHeaders.ORIGIN, ORIGIN), "ADMIN");
+		MockServerHttpResponse hit = send(MockServerHttpRequest.get("/products/1").header(HttpHeaders.ORIGIN, ORIGIN), "ADMIN");
+
+		assertEquals("MISS", miss.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+		assertEquals("HIT", hit.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+		assertEquals("[1]", hit.getBodyAsString().block());
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"POST", "PUT", "DELETE"})
+	void writesPurgeTheirPrefixOnly(String method) {
+		get("/products/1", "ADMIN", ORIGIN);
+		get("/stores", "ADMIN", ORIGIN);
+
+		send(MockServerHttpRequest.method(HttpMethod.valueOf(method), "/products/1"), "ADMIN");
+
+		assertEquals("[3]", get("/products/1", "ADMIN", ORIGIN));
+		assertEquals("[2]", get("/stores", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void existenceChecksDoNotPurge() {
+		get("/products", "ADMIN", ORIGIN);
+
+		send(MockServerHttpRequest.post("/products/exists"), "ADMIN");
+
+		assertEquals("[1]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void rolesAndOriginsDoNotShareEntries() {
+		assertEquals("[1]", get("/products", "ADMIN", ORIGIN));
+		assertEquals("[2]", get("/products", "USER", ORIGIN));
+		assertEquals("[3]", get("/products", "ADMIN", "http://localhost:3000"));
+		assertEquals("[1]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"no-store, s-maxage=30", "private, s-maxage=30", "private=\"Set-Cookie\", max-age=60", "no-cache, no-store, max-age=0, must-revalidate"})
+	void responsesTheOriginMarksUncacheableAreNotStored(String cacheControl) {
+		upstreamHeaders.setCacheControl(cacheControl);
+
+		get("/products", "ADMIN", ORIGIN);
+
+		assertEquals("[2]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void noCacheEntriesAreRevalidatedBeforeEveryUse() {
+		upstreamHeaders.setCacheControl("no-cache");
+		upstreamHeaders.setETag("\"v1\"");
+
+		get("/products", "ADMIN", ORIGIN);
+		for (int i = 0; i < 3; i++) {
+			MockServerHttpResponse response = send(MockServerHttpRequest.get("/products").header(HttpHeaders.ORIGIN, ORIGIN), "ADMIN");
+
+			assertEquals("REVALIDATED", response.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+			assertEquals("[1]", response.getBodyAsString().block());
+		}
+		assertEquals(3, conditionalCalls.get());
+	}
+
+	@Test
+	void noCacheWithoutAnETagIsFetchedAgain() {
+		upstreamHeaders.setCacheControl("no-cache, s-maxage=30");
+
+		get("/products", "ADMIN", ORIGIN);
+
+		assertEquals("[2]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void sharedMaxAgeWinsOverMaxAge() {
+		upstreamHeaders.setCacheControl("max-age=60, s-maxage=0");
+
+		get("/products", "ADMIN", ORIGIN);
+
+		assertEquals("[2]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void maxAgeAppliesWithoutSharedMaxAge() {
+		upstreamHeaders.setCacheControl("max-age=60");
+
+		get("/products", "ADMIN", ORIGIN);
+
+		assertEquals("[1]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void responsesWithoutALifetimeOrETagAreNotStored() {
+		upstreamHeaders.remove(HttpHeaders.CACHE_CONTROL);
+
+		get("/products", "ADMIN", ORIGIN);
+
+		assertEquals("[2]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	@Test
+	void variedHeadersSelectTheEntry() {
+		upstreamHeaders.setVary(List.of(HttpHeaders.ACCEPT_LANGUAGE));
+
+		assertEquals("[1]", getInLanguage("de"));
+		assertEquals("[2]", getInLanguage("en"));
+		assertEquals("[2]", getInLanguage("en"));
+	}
+
+	@Test
+	void varyStarIsNotStored() {
+		upstreamHeaders.setVary(List.of("*"));
+
+		get("/products", "ADMIN", ORIGIN);
+
+		assertEquals("[2]", get("/products", "ADMIN", ORIGIN));
+	}
+
+	private String getInLanguage(String language) {
+		return send(MockServerHttpRequest.get("/products").header(HttpHeaders.ACCEPT_LANGUAGE, language), "ADMIN")
+				.getBodyAsString().block();
+	}
+
+	private String get(String path, String role, String origin) {
+		return send(MockServerHttpRequest.get(path).header(HttpHeaders.ORIGIN, origin), role).getBodyAsString().block();
+	}
+
+	private MockServerHttpResponse send(MockServerHttpRequest.BaseBuilder<?> request, String role) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		Jwt jwt = Jwt.withTokenValue("token-" + role).header("alg", "RS256").subject("user").claim("role", role).build();
+		filter.filter(exchange, upstream)
+				.contextWrite(ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(jwt)))
+				.block();
+		return exchange.getResponse();
+	}
+}
@@ -0,0 +1,98 @@
+package com.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A route limited to a single request in flight, so the second concurrent request is shed.
+ */
+class AdaptiveAdmissionFilterTests {
+
+	private static final Route ROUTE = Route.async().id("inventory-service").uri(URI.create("http://localhost"))
+			.predicate(exchange -> true).build();
+
+	private final AdaptiveAdmissionFilter filter =
+			new AdaptiveAdmissionFilter(true, 1, 1, 1, 1.5, 0.2, 0.9, 100, new SimpleMeterRegistry());
+
+	// Takes the slot and keeps it until cancelled, like a service that stopped answering
+	private final GatewayFilterChain hanging = exchange -> Mono.never();
+
+	private final GatewayFilterChain answering = exchange -> {
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		return exchange.getResponse().setComplete();
+	};
+
+	// Sends its headers, then keeps the event stream open
+	private final GatewayFilterChain streaming = exchange -> {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+		DataBuffer event = response.bufferFactory().wrap("data: 1\n\n".getBytes(StandardCharsets.UTF_8));
+		return response.writeWith(Flux.concat(Mono.just(event), Flux.never()));
+	};
+
+	@Test
+	void requestsOverTheLimitAreShedUntilTheSlotIsFree() {
+		Disposable first = filter.filter(exchange(), hanging).subscribe();
+
+		MockServerWebExchange shed = exchange();
+		filter.filter(shed, answering).block();
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, shed.getResponse().getStatusCode());
+		assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+		first.dispose();
+		MockServerWebExchange admitted = exchange();
+		filter.filter(admitted, answering).block();
+
+		assertEquals(HttpStatus.OK, admitted.getResponse().getStatusCode());
+	}
+
+	@Test
+	void openStreamsGiveTheirSlotBackOnceTheHeadersAreSent() {
+		Disposable stream = filter.filter(exchange(), streaming).subscribe();
+
+		MockServerWebExchange next = exchange();
+		filter.filter(next, answering).block();
+
+		assertEquals(HttpStatus.OK, next.getResponse().getStatusCode());
+		stream.dispose();
+	}
+
+	@Test
+	void requestsWithoutARouteAreNotCounted() {
+		Disposable first = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/")), hanging).subscribe();
+
+		MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		filter.filter(second, answering).block();
+
+		assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+		assertNull(second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		first.dispose();
+	}
+
+	private static MockServerWebExchange exchange() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/inventory/1"));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+		return exchange;
+	}
+}
@@ -0,0 +1,67 @@
+package com.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTests {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+	private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 100, 1.5, 0.2, 0.9, 100);
+
+	@Test
+	void requestsBeyondTheLimitAreShed() {
+		for (int i = 0; i < 20; i++) {
+			assertTrue(limit.tryAcquire());
+		}
+
+		assertFalse(limit.tryAcquire());
+
+		limit.release(FAST, false);
+		assertTrue(limit.tryAcquire());
+	}
+
+	@Test
+	void failuresShrinkTheLimitDownToTheMinimum() {
+		for (int i = 0; i < 50; i++) {
+			limit.tryAcquire();
+			limit.release(FAST, true);
+		}
+
+		assertEquals(5, limit.limit());
+		assertEquals(0, limit.inFlight());
+	}
+
+	@Test
+	void slowingResponsesShrinkTheLimitAndFastOnesGrowItBack() {
+		runAtFullLoad(20, FAST);
+		int healthy = limit.limit();
+		assertTrue(healthy > 20);
+
+		runAtFullLoad(2, SLOW);
+		int overloaded = limit.limit();
+		assertTrue(overloaded < healthy);
+
+		runAtFullLoad(200, FAST);
+		assertTrue(limit.limit() > overloaded);
+	}
+
+	// Fills every slot, then returns them all with the same round trip
+	private void runAtFullLoad(int rounds, long rttNanos) {
+		for (int round = 0; round < rounds; round++) {
+			int acquired = 0;
+			while (limit.tryAcquire()) {
+				acquired++;
+			}
+			for (int i = 0; i < acquired; i++) {
+				limit.release(rttNanos, false);
+			}
+		}
+	}
+}
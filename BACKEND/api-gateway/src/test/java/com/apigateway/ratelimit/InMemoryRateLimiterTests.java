@@ -0,0 +1,88 @@
+package com.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rates low enough (one token a minute) that nothing refills while a test runs.
+ */
+class InMemoryRateLimiterTests {
+
+	private static final String ROUTE = "inventory-writes";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final InMemoryRateLimiter limiter = new InMemoryRateLimiter(null, registry, 1000, Duration.ofMinutes(5));
+
+	@BeforeEach
+	void setUp() {
+		InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+		config.setReplenishRate(1.0 / 60);
+		config.setBurstCapacity(2);
+		config.setRouteReplenishRate(1.0 / 60);
+		config.setRouteBurstCapacity(3);
+		limiter.getConfig().put(ROUTE, config);
+	}
+
+	@Test
+	void eachUserHasTheirOwnBucket() {
+		assertTrue(allowed("alice"));
+		assertTrue(allowed("alice"));
+
+		RateLimiter.Response rejected = limiter.isAllowed(ROUTE, "alice").block();
+
+		assertFalse(rejected.isAllowed());
+		assertEquals("0", rejected.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+		assertTrue(Long.parseLong(rejected.getHeaders().get(HttpHeaders.RETRY_AFTER)) > 0);
+		assertTrue(allowed("bob"));
+		assertEquals(1, registry.counter("gateway.ratelimit.rejected", "route", ROUTE, "limit", "user").count());
+	}
+
+	@Test
+	void theRouteCapRejectsWithoutChargingTheUser() {
+		assertTrue(allowed("alice"));
+		assertTrue(allowed("bob"));
+		assertTrue(allowed("carol"));
+
+		// Route bucket is empty; dave's own bucket must stay full
+		assertFalse(allowed("dave"));
+		assertFalse(allowed("dave"));
+		assertEquals(2, registry.counter("gateway.ratelimit.rejected", "route", ROUTE, "limit", "route").count());
+
+		limiter.getConfig().get(ROUTE).setRouteReplenishRate(0);
+		assertTrue(allowed("dave"));
+		assertTrue(allowed("dave"));
+		assertFalse(allowed("dave"));
+	}
+
+	@Test
+	void aUserOverTheirLimitDoesNotDrainTheRoute() {
+		assertTrue(allowed("alice"));
+		assertTrue(allowed("alice"));
+		assertFalse(allowed("alice"));
+		assertFalse(allowed("alice"));
+
+		// Two of the route's three tokens are taken; the third is still there for someone else
+		assertTrue(allowed("bob"));
+		assertFalse(allowed("carol"));
+	}
+
+	@Test
+	void routesWithoutLimitsAllowEverything() {
+		for (int i = 0; i < 10; i++) {
+			assertTrue(limiter.isAllowed("auth-service", "alice").block().isAllowed());
+		}
+	}
+
+	private boolean allowed(String user) {
+		return limiter.isAllowed(ROUTE, user).block().isAllowed();
+	}
+}
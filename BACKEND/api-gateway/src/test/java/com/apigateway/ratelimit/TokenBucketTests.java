@@ -0,0 +1,63 @@
+package com.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+	// 10 tokens per second, bursts of 5
+	private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long BURST = 5;
+
+	private final TokenBucket bucket = new TokenBucket();
+
+	@Test
+	void aFullBucketAllowsTheBurstAndThenRejects() {
+		long now = TimeUnit.SECONDS.toNanos(1);
+		for (long expected = BURST - 1; expected >= 0; expected--) {
+			assertEquals(expected, bucket.tryConsume(now, 1, INTERVAL, BURST));
+		}
+
+		long rejected = bucket.tryConsume(now, 1, INTERVAL, BURST);
+
+		assertTrue(rejected < 0);
+		// One interval until the next token
+		assertEquals(INTERVAL, -rejected - 1);
+	}
+
+	@Test
+	void tokensComeBackOneIntervalAtATime() {
+		long now = TimeUnit.SECONDS.toNanos(1);
+		for (int i = 0; i < BURST; i++) {
+			bucket.tryConsume(now, 1, INTERVAL, BURST);
+		}
+
+		assertEquals(0, bucket.tryConsume(now + INTERVAL, 1, INTERVAL, BURST));
+		assertTrue(bucket.tryConsume(now + INTERVAL, 1, INTERVAL, BURST) < 0);
+		// Idle for longer than a full refill: the burst is back, but no more than that
+		assertEquals(BURST - 1, bucket.tryConsume(now + TimeUnit.SECONDS.toNanos(10), 1, INTERVAL, BURST));
+	}
+
+	@Test
+	void requestsCostingSeveralTokensAreAllOrNothing() {
+		long now = TimeUnit.SECONDS.toNanos(1);
+
+		assertEquals(1, bucket.tryConsume(now, 4, INTERVAL, BURST));
+		assertTrue(bucket.tryConsume(now, 2, INTERVAL, BURST) < 0);
+		assertEquals(0, bucket.tryConsume(now, 1, INTERVAL, BURST));
+	}
+
+	@Test
+	void peekAndRefundLeaveTheBucketAsItWas() {
+		long now = TimeUnit.SECONDS.toNanos(1);
+
+		assertEquals(BURST - 1, bucket.peek(now, 1, INTERVAL, BURST));
+		assertEquals(BURST - 1, bucket.tryConsume(now, 1, INTERVAL, BURST));
+		bucket.refund(1, INTERVAL);
+		assertEquals(BURST - 1, bucket.tryConsume(now, 1, INTERVAL, BURST));
+	}
+}
@@ -0,0 +1,35 @@
+package com.benchmarks.inventory;
+
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.monitoring.MetricsConfig;
+import com.common.monitoring.VirtualThreadPinningMonitor;
+import com.common.resilience.DownstreamResilience;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * inventory-service's services and repositories on an in-memory H2 database in PostgreSQL mode,
+ * without its web and security layers (which read key files relative to the module directory).
+ * The monitoring beans are included so the measured paths carry their production timers.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.inventorymanagement.model")
+@EnableJpaRepositories("com.inventorymanagement.repository")
+@ComponentScan({"com.inventorymanagement.service", "com.inventorymanagement.repository", "com.inventorymanagement.monitoring"})
+@Import({MetricsConfig.class, VirtualThreadPinningMonitor.class, DownstreamResilience.class, DownstreamCallMetrics.class})
+public class InventoryBenchmarkContext {
+
+    static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(InventoryBenchmarkContext.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+}
@@ -0,0 +1,90 @@
+package com.benchmarks.inventory;
+
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.repository.MovementBatchWriter;
+import com.inventorymanagement.service.InventoryMovementService;
+import com.inventorymanagement.service.MovementRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryMovementService#getMovementMetrics} over a movement table of {@code rows} rows
+ * spread across 30 days, answered either from the hourly rollups or by grouping the movement
+ * table itself ({@code inventory.metrics.source}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class MovementMetricsBenchmark {
+    private static final int CHUNK = 10_000;
+    private static final int DAYS = 30;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"rollup", "query"})
+    public String source;
+
+    private ConfigurableApplicationContext context;
+    private InventoryMovementService movementService;
+
+    @Setup
+    public void setUp() {
+        context = InventoryBenchmarkContext.start("--inventory.metrics.source=" + source);
+        movementService = context.getBean(InventoryMovementService.class);
+
+        MovementBatchWriter writer = context.getBean(MovementBatchWriter.class);
+        LocalDateTime to = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = to.minusDays(DAYS);
+        long spanSeconds = ChronoUnit.SECONDS.between(from, to);
+        Random random = new Random(42);
+
+        for (int written = 0; written < rows; written += CHUNK) {
+            List<InventoryMovement> chunk = new ArrayList<>(CHUNK);
+            for (int i = 0; i < Math.min(CHUNK, rows - written); i++) {
+                InventoryMovement movement = new InventoryMovement();
+                movement.setStoreId(1L + random.nextInt(50));
+                movement.setProductId(1L + random.nextInt(1_000));
+                movement.setUserId(1L);
+                movement.setQuantity(1 + random.nextInt(20));
+                movement.setMovementType(random.nextBoolean() ? "ENTRY" : "EXIT");
+                movement.setMovementDate(from.plusSeconds((long) (random.nextDouble() * spanSeconds)));
+                chunk.add(movement);
+            }
+            writer.insertAll(chunk);
+        }
+        context.getBean(MovementRollupService.class).backfill(from, to);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Long> getMovementMetrics() {
+        return movementService.getMovementMetrics();
+    }
+}
@@ -0,0 +1,87 @@
+package com.benchmarks.inventory;
+
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.service.InventoryChangeStream;
+import com.inventorymanagement.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryService#updateStock} against embedded H2: the atomic stock update, the movement
+ * insert and the rollup upsert in one transaction. Entries and exits alternate so stock stays level.
+ * {@code subscribers} change stream subscriptions, each filtered to one store, receive every commit
+ * on the committing thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class UpdateStockBenchmark {
+    private static final int STORES = 10;
+    private static final int PRODUCTS = 100;
+
+    @Param({"0", "1000"})
+    public int subscribers;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private boolean entry;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        context = InventoryBenchmarkContext.start();
+        inventoryService = context.getBean(InventoryService.class);
+
+        List<Inventory> items = new ArrayList<>();
+        for (long store = 1; store <= STORES; store++) {
+            for (long product = 1; product <= PRODUCTS; product++) {
+                Inventory inventory = new Inventory();
+                inventory.setStoreId(store);
+                inventory.setProductId(product);
+                inventory.setQuantity(1_000_000);
+                items.add(inventory);
+            }
+        }
+        context.getBean(InventoryRepository.class).saveAll(items);
+
+        InventoryChangeStream changeStream = context.getBean(InventoryChangeStream.class);
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(changeStream.changes((long) (i % STORES) + 1, null, null).subscribe());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        context.close();
+    }
+
+    @Benchmark
+    public Inventory updateStock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        entry = !entry;
+        return inventoryService.updateStock(random.nextLong(1, STORES + 1), random.nextLong(1, PRODUCTS + 1),
+                5, 1L, entry ? "ENTRY" : "EXIT");
+    }
+}
@@ -0,0 +1,123 @@
+package com.benchmarks.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.common.logging.HotPathSamplingFilter;
+import com.productmanagement.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging cost of one product create plus one stock movement, the statements those requests
+ * emit, from four request threads.
+ * <ul>
+ *     <li>{@code sync-before} – the previous statements (full entities at INFO) through a
+ *     synchronous appender</li>
+ *     <li>{@code async-before} – the same statements through the async, redacting setup</li>
+ *     <li>{@code async-after} – the current statements (DEBUG detail, sampled hot-path INFO)
+ *     through the async setup</li>
+ * </ul>
+ * Lines actually written per operation are printed on teardown, since the async queue drops
+ * events instead of blocking when the writer falls behind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"sync-before", "async-before", "async-after"})
+    public String setup;
+
+    private LoggerContext context;
+    private Logger controllerLogger;
+    private Logger productLogger;
+    private Logger inventoryLogger;
+    private Path logFile;
+    private Product product;
+    private final AtomicLong operations = new AtomicLong();
+    private boolean currentStatements;
+
+    @Setup
+    public void setUp() throws Exception {
+        logFile = Path.of("target", "logging-benchmark", setup + ".log").toAbsolutePath();
+        Files.createDirectories(logFile.getParent());
+
+        context = new LoggerContext();
+        context.putProperty("LOG_FILE", logFile.toString());
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        try (InputStream config = getClass().getResourceAsStream("/logging/" + (setup.startsWith("sync") ? "sync" : "async") + ".xml")) {
+            configurator.doConfigure(config);
+        }
+        controllerLogger = context.getLogger("com.productmanagement.controller.ProductController");
+        productLogger = context.getLogger("com.productmanagement.service.ProductService");
+        inventoryLogger = context.getLogger("com.inventorymanagement.service.InventoryService");
+        currentStatements = setup.endsWith("after");
+
+        product = new Product();
+        product.setId(123L);
+        product.setName("Benchmark product");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setCategory("bench");
+        product.setStoreId(1L);
+    }
+
+    @Benchmark
+    public void productCreateAndMovement() {
+        long id = operations.incrementAndGet();
+        if (currentStatements) {
+            controllerLogger.debug("Received request to CREATE product: {}", product);
+            productLogger.debug("Received request to CREATE product: {}", product);
+            productLogger.info(HotPathSamplingFilter.HOT_PATH, "Product created successfully with ID: {}", id);
+            controllerLogger.debug("Product created successfully: {}", product);
+            inventoryLogger.info(HotPathSamplingFilter.HOT_PATH, "Inventory movement recorded: Store={}, Product={}, Type={}, Quantity={}",
+                    1L, id, "ENTRY", 1);
+        } else {
+            controllerLogger.info("Received request to CREATE product: {}", product);
+            productLogger.info("Received request to CREATE product: {}", product);
+            productLogger.info("Product created successfully with ID: {}", id);
+            controllerLogger.info("Product created successfully: {}", product);
+            inventoryLogger.info("Inventory movement recorded: Store={}, Product={}, Type={}, Quantity={}",
+                    1L, id, "ENTRY", 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        long lines;
+        try (var stream = Files.lines(logFile)) {
+            lines = stream.count();
+        }
+        Files.delete(logFile);
+        System.out.printf("%n%s: %d operations, %.2f lines written per operation%n",
+                setup, operations.get(), lines / (double) Math.max(1, operations.get()));
+    }
+}
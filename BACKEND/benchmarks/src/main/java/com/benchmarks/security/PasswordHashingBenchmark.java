@@ -0,0 +1,69 @@
+package com.benchmarks.security;
+
+import com.retailinventory.security.PasswordHasher;
+import com.retailinventory.security.PasswordHashingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second per core: the password check of {@code AuthService.validateUser} on a
+ * single-thread {@link PasswordHasher} pool, for each supported algorithm and cost, with and
+ * without the verified-credentials cache. {@code argon2} uses the service defaults
+ * (19 MiB, 2 iterations, 1 lane).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"bcrypt-10", "bcrypt-12", "argon2"})
+    public String hash;
+
+    private PasswordHasher uncached;
+    private PasswordHasher cached;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder encoder = hash.startsWith(PasswordHashingConfig.BCRYPT)
+                ? PasswordHashingConfig.delegatingEncoder(PasswordHashingConfig.BCRYPT, Integer.parseInt(hash.substring(7)), 19456, 2, 1)
+                : PasswordHashingConfig.delegatingEncoder(PasswordHashingConfig.ARGON2, 10, 19456, 2, 1);
+        uncached = new PasswordHasher(encoder, 1, 64, Duration.ofSeconds(30), 0, Duration.ZERO);
+        cached = new PasswordHasher(encoder, 1, 64, Duration.ofSeconds(30), 10_000, Duration.ofMinutes(2));
+        storedHash = uncached.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        uncached.destroy();
+        cached.destroy();
+    }
+
+    @Benchmark
+    public boolean login() {
+        return uncached.verify(PASSWORD, storedHash).matched();
+    }
+
+    @Benchmark
+    public boolean repeatLoginCached() {
+        return cached.verify(PASSWORD, storedHash).matched();
+    }
+}
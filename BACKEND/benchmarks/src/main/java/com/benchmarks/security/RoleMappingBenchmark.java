@@ -0,0 +1,61 @@
+package com.benchmarks.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a decoded JWT into an authentication with its {@code ROLE_*} authority, using
+ * each service's own {@code jwtAuthenticationConverter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleMappingBenchmark {
+
+    @Param({"inventory-management", "inventory-service", "product-service"})
+    public String service;
+
+    private Converter<Jwt, ? extends AbstractAuthenticationToken> converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = switch (service) {
+            case "inventory-management" -> new com.retailinventory.security.SecurityConfig().jwtAuthenticationConverter();
+            case "inventory-service" -> new com.inventorymanagement.security.SecurityConfig().jwtAuthenticationConverter();
+            case "product-service" -> new com.productmanagement.security.SecurityConfig().jwtAuthenticationConverter();
+            default -> throw new IllegalArgumentException("Unknown service " + service);
+        };
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("admin@example.com")
+                .claim("role", "ADMIN")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+}
@@ -0,0 +1,85 @@
+package com.benchmarks.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventorymanagement.model.InventoryMovement;
+import com.productmanagement.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list payloads returned by {@code GET /products} and
+ * {@code GET /inventory/movements}, with the ObjectMapper Spring Boot configures by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectWriter productsWriter;
+    private ObjectWriter movementsWriter;
+    private List<Product> products;
+    private List<InventoryMovement> movements;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class));
+        movementsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, InventoryMovement.class));
+
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(size);
+        movements = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setPrice(BigDecimal.valueOf(id % 1000, 2).add(BigDecimal.ONE));
+            product.setCategory("Category " + id % 20);
+            product.setStoreId(id % 50);
+            products.add(product);
+
+            InventoryMovement movement = new InventoryMovement();
+            movement.setId(id);
+            movement.setStoreId(id % 50);
+            movement.setProductId(id);
+            movement.setUserId(1L);
+            movement.setQuantity((int) (id % 20) + 1);
+            movement.setMovementType(id % 2 == 0 ? "ENTRY" : "EXIT");
+            movement.setMovementDate(now.minusMinutes(id));
+            movements.add(movement);
+        }
+    }
+
+    @Benchmark
+    public byte[] products() throws Exception {
+        return productsWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] movements() throws Exception {
+        return movementsWriter.writeValueAsBytes(movements);
+    }
+}
@@ -0,0 +1,33 @@
+package com.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through one in {@code every} INFO-or-lower events marked {@link #HOT_PATH}, chosen at
+ * random; WARN and ERROR always pass. Runs before the message is formatted, so dropped events
+ * cost neither allocation nor appender time. Configured in {@code logback-spring.xml}.
+ */
+public class HotPathSamplingFilter extends TurboFilter {
+    public static final Marker HOT_PATH = MarkerFactory.getMarker("HOT_PATH");
+
+    private int every = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker != HOT_PATH || level == null || level.isGreaterOrEqual(Level.WARN) || every <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(every) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setEvery(int every) {
+        this.every = every;
+    }
+}
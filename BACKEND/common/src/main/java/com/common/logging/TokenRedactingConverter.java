@@ -0,0 +1,37 @@
+package com.common.logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@code %m} that masks bearer tokens and anything shaped like a JWT. Messages are only scanned
+ * with the regex when a cheap substring check finds a candidate.
+ */
+public class TokenRedactingConverter extends MessageConverter {
+    private static final Pattern BEARER = Pattern.compile("(?i)bearer\\s+[A-Za-z0-9._~+/=-]+");
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]*\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return redact(super.convert(event));
+    }
+
+    public static String redact(String message) {
+        if (message == null || (message.indexOf("eyJ") < 0 && !mentionsBearer(message))) {
+            return message;
+        }
+        String redacted = BEARER.matcher(message).replaceAll("Bearer [REDACTED]");
+        return JWT.matcher(redacted).replaceAll("[REDACTED]");
+    }
+
+    private static boolean mentionsBearer(String message) {
+        for (int i = message.indexOf("earer"); i > 0; i = message.indexOf("earer", i + 1)) {
+            if ((message.charAt(i - 1) | 0x20) == 'b') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
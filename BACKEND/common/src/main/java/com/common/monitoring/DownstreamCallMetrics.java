@@ -0,0 +1,42 @@
+package com.common.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times outgoing {@code WebClient} calls as {@value #TIMER}, tagged with the target service,
+ * HTTP method and response status ({@code IO_ERROR} when no response arrived). The timer stops
+ * when the response headers are received.
+ */
+@Component
+public class DownstreamCallMetrics {
+    public static final String TIMER = "downstream.requests";
+
+    private final MeterRegistry registry;
+
+    public DownstreamCallMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public ExchangeFilterFunction forTarget(String target) {
+        return (request, next) -> Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            String method = request.method().name();
+            return next.exchange(request)
+                    .doOnSuccess(response -> sample.stop(timer(target, method, String.valueOf(response.statusCode().value()))))
+                    .doOnError(error -> sample.stop(timer(target, method, "IO_ERROR")));
+        });
+    }
+
+    private Timer timer(String target, String method, String status) {
+        return Timer.builder(TIMER)
+                .description("Calls to other services")
+                .tag("target", target)
+                .tag("method", method)
+                .tag("status", status)
+                .register(registry);
+    }
+}
@@ -0,0 +1,16 @@
+package com.common.outbox;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Import into a service that publishes an outbox feed. Registers this package with Boot's entity
+ * and repository scanning next to the application's own, and the {@link OutboxService}. The
+ * {@code outbox_events} table stays in each service's own migrations.
+ */
+@Configuration
+@AutoConfigurationPackage
+@Import(OutboxService.class)
+public class OutboxConfiguration {
+}
@@ -0,0 +1,59 @@
+package com.common.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a replicated aggregate, written in the same transaction as the change itself.
+ * {@code payload} is the aggregate as JSON after the change, or {@code null} for a deletion.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Feed reads: events of one aggregate type after an offset
+        @Index(name = "idx_outbox_type_id", columnList = "aggregate_type, id"),
+        // Compaction: the previous event of the same aggregate
+        @Index(name = "idx_outbox_type_aggregate", columnList = "aggregate_type, aggregate_id")
+})
+public class OutboxEvent {
+    public static final String UPSERTED = "UPSERTED";
+    public static final String DELETED = "DELETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+
+    @JsonRawValue
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; }
+    public String getAggregateType() { return aggregateType; }
+    public Long getAggregateId() { return aggregateId; }
+    public String getEventType() { return eventType; }
+    public String getPayload() { return payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
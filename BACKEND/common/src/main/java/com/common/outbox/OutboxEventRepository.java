@@ -0,0 +1,22 @@
+package com.common.outbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByAggregateTypeAndIdGreaterThanOrderById(String aggregateType, Long afterId, Limit limit);
+
+    boolean existsByAggregateType(String aggregateType);
+
+    // ✅ Compaction: only the latest event per aggregate is kept, so the feed from offset 0 is a full snapshot
+    @Modifying
+    @Query("delete from OutboxEvent e where e.aggregateType = :aggregateType and e.aggregateId = :aggregateId")
+    int deleteByAggregate(@Param("aggregateType") String aggregateType, @Param("aggregateId") Long aggregateId);
+}
@@ -0,0 +1,11 @@
+package com.common.outbox;
+
+import java.util.List;
+
+/**
+ * One page of the outbox feed. {@code nextAfter} is the offset to resume from: it stops before
+ * the first event younger than the settle window, so events whose transactions were still
+ * committing are read again on the next poll instead of being skipped.
+ */
+public record OutboxFeed(List<OutboxEvent> events, long nextAfter) {
+}
@@ -0,0 +1,106 @@
+package com.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox for reference data other services replicate (inventory-service keeps local
+ * copies of the stores and products). Events are written in the caller's transaction, so a change and its
+ * event commit or roll back together, and consumers page through them with {@link #readFeed}.
+ * <p>
+ * Callers must lock the aggregate row (flush the change) before writing its event: event ids of one
+ * aggregate then follow commit order and a consumer can drop anything older than what it applied.
+ */
+@Service
+public class OutboxService {
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final byte[] replicationKey;
+    private final Duration settle;
+    private final int maxPageSize;
+
+    public OutboxService(OutboxEventRepository outboxRepository, ObjectMapper objectMapper,
+                         @Value("${outbox.key:}") String replicationKey,
+                         @Value("${outbox.settle:5s}") Duration settle,
+                         @Value("${outbox.max-page-size:1000}") int maxPageSize) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.replicationKey = replicationKey.getBytes(StandardCharsets.UTF_8);
+        this.settle = settle;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upserted(String aggregateType, Long aggregateId, Object aggregate) {
+        write(aggregateType, aggregateId, OutboxEvent.UPSERTED, toJson(aggregate));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(String aggregateType, Long aggregateId) {
+        write(aggregateType, aggregateId, OutboxEvent.DELETED, null);
+    }
+
+    private void write(String aggregateType, Long aggregateId, String eventType, String payload) {
+        // ✅ Only the latest event per aggregate is kept, so the table stays as large as the data it mirrors
+        outboxRepository.deleteByAggregate(aggregateType, aggregateId);
+        outboxRepository.save(new OutboxEvent(aggregateType, aggregateId, eventType, payload));
+    }
+
+    /**
+     * Whether any event of this type was ever written; used to seed the outbox with rows that
+     * existed before it did.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasEvents(String aggregateType) {
+        return outboxRepository.existsByAggregateType(aggregateType);
+    }
+
+    /**
+     * Events of one aggregate type after {@code afterId}, oldest first. Ids are assigned before
+     * commit, so a slow transaction can still add an event below the newest id; {@code nextAfter}
+     * therefore only moves past events older than {@code outbox.settle} and the rest are served
+     * again next time. Consumers ignore events they already applied.
+     */
+    @Transactional(readOnly = true)
+    public OutboxFeed readFeed(String aggregateType, long afterId, int limit) {
+        List<OutboxEvent> events = outboxRepository.findByAggregateTypeAndIdGreaterThanOrderById(
+                aggregateType, afterId, Limit.of(Math.max(1, Math.min(limit, maxPageSize))));
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settle);
+        long nextAfter = afterId;
+        for (OutboxEvent event : events) {
+            if (!event.getCreatedAt().isBefore(settledBefore)) {
+                break;
+            }
+            nextAfter = event.getId();
+        }
+        return new OutboxFeed(events, nextAfter);
+    }
+
+    /**
+     * Constant-time check of the {@code X-Replication-Key} header. An empty {@code outbox.key}
+     * disables the feed.
+     */
+    public boolean isAuthorized(String key) {
+        return replicationKey.length > 0 && key != null
+                && MessageDigest.isEqual(replicationKey, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toJson(Object aggregate) {
+        try {
+            return objectMapper.writeValueAsString(aggregate);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.common.resilience;
+
+/**
+ * Count-based circuit breaker for one downstream service. While closed it keeps the outcomes of
+ * the last {@code slidingWindow} calls and opens once at least {@code minimumCalls} were made and
+ * the failure rate reaches the threshold. After {@code openNanos} it lets {@code halfOpenCalls}
+ * probes through: all of them succeeding closes it again, any failure reopens it.
+ */
+final class CircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private volatile State state = State.CLOSED;
+    private int recorded;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    CircuitBreaker(int slidingWindow, int minimumCalls, double failureRateThreshold, long openNanos, int halfOpenCalls) {
+        this.outcomes = new boolean[slidingWindow];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindow);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    State state() {
+        return state;
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesIssued = 0;
+                probesSucceeded = 0;
+                // fall through: this call is the first probe
+            default:
+                if (probesIssued >= halfOpenCalls) {
+                    return false;
+                }
+                probesIssued++;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRateThreshold) {
+                open(now);
+            }
+        }
+    }
+
+    /**
+     * A permitted call ended without an outcome (cancelled); its probe slot is handed back.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+            probesIssued--;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+    }
+}
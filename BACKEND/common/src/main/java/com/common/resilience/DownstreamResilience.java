@@ -0,0 +1,216 @@
+package com.common.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a slow or failing downstream service from tying up the threads that wait on it.
+ * <p>
+ * Every attempt is bounded by the connect and response timeouts of {@link #connector()}, and every
+ * call, hedge included, by {@code call-timeout}. Per target service, {@link #forTarget(String)}
+ * adds a {@link CircuitBreaker} (errors, timeouts and {@code 5xx} responses count as failures) and
+ * a bulkhead capping concurrent calls; calls either of them turns away fail at once with
+ * {@code 503}. With hedging enabled, a {@code GET} still unanswered after {@code hedge.delay} is
+ * sent a second time and the first response wins.
+ * <p>
+ * Breaker state is exposed as {@value #CIRCUIT_STATE} (0 closed, 1 open, 2 half-open), turned-away
+ * calls as {@value #REJECTED} and hedges sent as {@value #HEDGED}, all tagged with the target.
+ */
+@Component
+public class DownstreamResilience {
+    public static final String CIRCUIT_STATE = "downstream.circuit.state";
+    public static final String REJECTED = "downstream.rejected";
+    public static final String HEDGED = "downstream.hedged";
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamResilience.class);
+
+    private final MeterRegistry registry;
+    private final Duration connectTimeout;
+    private final Duration responseTimeout;
+    private final Duration callTimeout;
+    private final int slidingWindow;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final int maxConcurrentCalls;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeDelay;
+    private final ReactorClientHttpConnector connector;
+    private final ConcurrentMap<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamResilience(MeterRegistry registry,
+                                @Value("${downstream.connect-timeout:2s}") Duration connectTimeout,
+                                @Value("${downstream.response-timeout:3s}") Duration responseTimeout,
+                                @Value("${downstream.call-timeout:5s}") Duration callTimeout,
+                                @Value("${downstream.circuit.sliding-window:20}") int slidingWindow,
+                                @Value("${downstream.circuit.minimum-calls:10}") int minimumCalls,
+                                @Value("${downstream.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+                                @Value("${downstream.circuit.open-duration:10s}") Duration openDuration,
+                                @Value("${downstream.circuit.half-open-calls:3}") int halfOpenCalls,
+                                @Value("${downstream.bulkhead.max-concurrent-calls:100}") int maxConcurrentCalls,
+                                @Value("${downstream.hedge.enabled:false}") boolean hedgeEnabled,
+                                @Value("${downstream.hedge.delay:200ms}") Duration hedgeDelay) {
+        this.registry = registry;
+        this.connectTimeout = connectTimeout;
+        this.responseTimeout = responseTimeout;
+        this.callTimeout = callTimeout;
+        this.slidingWindow = slidingWindow;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelay = hedgeDelay;
+        this.connector = new ReactorClientHttpConnector(withTimeouts(HttpClient.create()));
+    }
+
+    /**
+     * Connector for clients that use the default connection pool.
+     */
+    public ReactorClientHttpConnector connector() {
+        return connector;
+    }
+
+    /**
+     * Applies the connect and response timeouts to a client with its own connection pool.
+     */
+    public HttpClient withTimeouts(HttpClient client) {
+        return client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+    }
+
+    /**
+     * Filter guarding calls to {@code target}; clients calling the same target share its breaker
+     * and bulkhead. Register it before {@code DownstreamCallMetrics} so each attempt is timed.
+     */
+    public ExchangeFilterFunction forTarget(String target) {
+        Guard guard = guards.computeIfAbsent(target, Guard::new);
+        return (request, next) -> Mono.defer(() -> {
+            if (!guard.breaker.tryAcquire(System.nanoTime())) {
+                return guard.reject("circuit_open");
+            }
+            if (!guard.tryEnter()) {
+                guard.breaker.onIgnored();
+                return guard.reject("bulkhead_full");
+            }
+            Mono<ClientResponse> call = hedgeEnabled && HttpMethod.GET.equals(request.method())
+                    ? hedged(request, next, guard)
+                    : next.exchange(request);
+            return call.timeout(callTimeout)
+                    .doOnSuccess(response -> {
+                        if (response.statusCode().is5xxServerError()) {
+                            guard.onFailure();
+                        } else {
+                            guard.breaker.onSuccess();
+                        }
+                    })
+                    .doOnError(error -> guard.onFailure())
+                    .doOnCancel(guard.breaker::onIgnored)
+                    .doFinally(signal -> guard.inFlight.decrementAndGet());
+        });
+    }
+
+    /**
+     * Sends the request again if no response arrived within the hedge delay. The first response
+     * claims the call; a later one is released so its connection goes back to the pool.
+     */
+    private Mono<ClientResponse> hedged(ClientRequest request, ExchangeFunction next, Guard guard) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        Mono<ClientResponse> primary = claim(next.exchange(request), claimed);
+        Mono<ClientResponse> hedge = Mono.delay(hedgeDelay)
+                .doOnNext(tick -> guard.hedged.increment())
+                .then(claim(next.exchange(request), claimed));
+        return Mono.firstWithValue(primary, hedge);
+    }
+
+    private static Mono<ClientResponse> claim(Mono<ClientResponse> attempt, AtomicBoolean claimed) {
+        return attempt.flatMap(response -> claimed.compareAndSet(false, true)
+                ? Mono.just(response)
+                : response.releaseBody().then(Mono.empty()));
+    }
+
+    private final class Guard {
+        private final String target;
+        private final CircuitBreaker breaker;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter circuitOpen;
+        private final Counter bulkheadFull;
+        private final Counter hedged;
+
+        Guard(String target) {
+            this.target = target;
+            this.breaker = new CircuitBreaker(slidingWindow, minimumCalls, failureRateThreshold,
+                    openDuration.toNanos(), halfOpenCalls);
+            Gauge.builder(CIRCUIT_STATE, breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state per downstream service: 0 closed, 1 open, 2 half-open")
+                    .tag("target", target)
+                    .register(registry);
+            Gauge.builder("downstream.inflight", inFlight, AtomicInteger::get)
+                    .description("Calls in flight per downstream service, capped by the bulkhead")
+                    .tag("target", target)
+                    .register(registry);
+            this.circuitOpen = rejected("circuit_open");
+            this.bulkheadFull = rejected("bulkhead_full");
+            this.hedged = Counter.builder(HEDGED)
+                    .description("GET requests sent a second time because the first was slow")
+                    .tag("target", target)
+                    .register(registry);
+        }
+
+        private Counter rejected(String reason) {
+            return Counter.builder(REJECTED)
+                    .description("Downstream calls turned away without being sent")
+                    .tag("target", target)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+
+        boolean tryEnter() {
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= maxConcurrentCalls) {
+                    return false;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void onFailure() {
+            CircuitBreaker.State before = breaker.state();
+            breaker.onFailure(System.nanoTime());
+            if (before != CircuitBreaker.State.OPEN && breaker.state() == CircuitBreaker.State.OPEN) {
+                logger.warn("Circuit to {} opened; calls fail fast for {}.", target, openDuration);
+            }
+        }
+
+        <T> Mono<T> reject(String reason) {
+            ("circuit_open".equals(reason) ? circuitOpen : bulkheadFull).increment();
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    target + " unavailable (" + reason.replace('_', ' ') + ")"));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.common.security;
+
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTParser;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Skips the RSA signature check for tokens the api-gateway has already verified. The gateway
+ * sends {@value #HEADER} = Base64url(HMAC-SHA256(shared secret, token)); when it matches, the
+ * claims are parsed and their timestamps validated locally. Requests without a valid header,
+ * such as calls that bypass the gateway, go through the delegate decoder.
+ */
+public class GatewayTrustedJwtDecoder implements JwtDecoder {
+    public static final String HEADER = "X-Gateway-Token-Mac";
+
+    private final JwtDecoder delegate;
+    private final SecretKeySpec key;
+    private final OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefault();
+    private final Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+
+    public GatewayTrustedJwtDecoder(JwtDecoder delegate, String secret) {
+        this.delegate = delegate;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String mac = currentRequestHeader();
+        if (mac == null || !matches(token, mac)) {
+            return delegate.decode(token);
+        }
+        return parseTrusted(token);
+    }
+
+    /**
+     * The header value the gateway sends for {@code token}.
+     */
+    public String sign(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(token));
+    }
+
+    private boolean matches(String token, String header) {
+        try {
+            return MessageDigest.isEqual(mac(token), Base64.getUrlDecoder().decode(header));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] mac(String token) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private Jwt parseTrusted(String token) {
+        Jwt jwt;
+        try {
+            JWT parsed = JWTParser.parse(token);
+            Map<String, Object> claims = claimSetConverter.convert(parsed.getJWTClaimsSet().getClaims());
+            jwt = Jwt.withTokenValue(token)
+                    .headers(headers -> headers.putAll(parsed.getHeader().toJSONObject()))
+                    .claims(c -> c.putAll(claims))
+                    .build();
+        } catch (ParseException | IllegalArgumentException e) {
+            throw new BadJwtException("Malformed token: " + e.getMessage(), e);
+        }
+
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        if (result.hasErrors()) {
+            throw new JwtValidationException("Invalid token", result.getErrors());
+        }
+        return jwt;
+    }
+
+    private static String currentRequestHeader() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getHeader(HEADER);
+        }
+        return null;
+    }
+}
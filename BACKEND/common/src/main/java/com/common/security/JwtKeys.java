@@ -0,0 +1,128 @@
+package com.common.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Token signing keys as JWKs. An RSA key signs RS256 and a P-256 EC key signs ES256; the key ID
+ * is the RFC 7638 thumbprint of the public key, so it stays the same across restarts and
+ * instances and downstream JWKS caches keep working. auth-service loads its signing key here;
+ * the other services load the public keys they verify tokens with.
+ */
+public final class JwtKeys {
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+
+    private JwtKeys() {
+    }
+
+    /**
+     * Signing key from PEM files: a PKCS#8 private key and its X.509 public key.
+     */
+    public static JWK signingKey(Path privateKeyPem, Path publicKeyPem) throws IOException, GeneralSecurityException, JOSEException {
+        PublicKey publicKey = readPublicKey(publicKeyPem);
+        PrivateKey privateKey = readPrivateKey(privateKeyPem, publicKey.getAlgorithm());
+        return toJwk(publicKey, privateKey);
+    }
+
+    public static JWK publicKey(Path publicKeyPem) throws IOException, GeneralSecurityException, JOSEException {
+        return toJwk(readPublicKey(publicKeyPem), null);
+    }
+
+    /**
+     * Public keys from X.509 PEM files. Listing several keys lets tokens of the current and the
+     * previous signing key verify during a key rotation.
+     */
+    public static JWKSet publicKeys(List<String> publicKeyPems) throws IOException, GeneralSecurityException, JOSEException {
+        List<JWK> keys = new ArrayList<>();
+        for (String pem : publicKeyPems) {
+            if (!pem.isBlank()) {
+                keys.add(publicKey(Path.of(pem.trim())));
+            }
+        }
+        return new JWKSet(keys);
+    }
+
+    public static JWK toJwk(PublicKey publicKey, PrivateKey privateKey) throws JOSEException {
+        if (publicKey instanceof RSAPublicKey rsa) {
+            RSAKey.Builder builder = new RSAKey.Builder(rsa)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .keyIDFromThumbprint();
+            return privateKey != null ? builder.privateKey((RSAPrivateKey) privateKey).build() : builder.build();
+        }
+        if (publicKey instanceof ECPublicKey ec && Curve.P_256.equals(Curve.forECParameterSpec(ec.getParams()))) {
+            ECKey.Builder builder = new ECKey.Builder(Curve.P_256, ec)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.ES256)
+                    .keyIDFromThumbprint();
+            return privateKey != null ? builder.privateKey((ECPrivateKey) privateKey).build() : builder.build();
+        }
+        throw new IllegalArgumentException("Token signing keys must be RSA or EC P-256, got " + publicKey.getAlgorithm());
+    }
+
+    /**
+     * Local decoder accepting RS256 and ES256 tokens signed by any key in {@code keys}; tokens
+     * without a {@code kid} (issued before key IDs were stable) are tried against all of them.
+     */
+    public static JwtDecoder decoder(JWKSet keys) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(ALGORITHMS, new ImmutableJWKSet<>(keys)));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+            // ✅ exp/nbf are checked by NimbusJwtDecoder's default validators
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static PublicKey readPublicKey(Path pem) throws IOException, GeneralSecurityException {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(pemBody(pem));
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(spec);
+        } catch (InvalidKeySpecException notRsa) {
+            return KeyFactory.getInstance("EC").generatePublic(spec);
+        }
+    }
+
+    private static PrivateKey readPrivateKey(Path pem, String algorithm) throws IOException, GeneralSecurityException {
+        KeySpec spec = new PKCS8EncodedKeySpec(pemBody(pem));
+        return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+    }
+
+    private static byte[] pemBody(Path pem) throws IOException {
+        String body = Files.readString(pem)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+}
@@ -0,0 +1,147 @@
+package com.common.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DownstreamResilienceTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void opensAfterFailuresAndClosesAfterSuccessfulProbes() throws Exception {
+		DownstreamResilience resilience = resilience(100, false);
+		AtomicInteger calls = new AtomicInteger();
+		HttpStatus[] status = {HttpStatus.INTERNAL_SERVER_ERROR};
+		ExchangeFunction client = resilience.forTarget("store-service")
+				.apply(request -> {
+					calls.incrementAndGet();
+					return Mono.just(ClientResponse.create(status[0]).build());
+				});
+
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(client.exchange(get())).expectNextCount(1).verifyComplete();
+		}
+		assertEquals(1.0, state());
+
+		// Open: failing fast without calling the service
+		StepVerifier.create(client.exchange(get()))
+				.expectErrorMatches(error -> error instanceof ResponseStatusException e
+						&& e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+				.verify(TIMEOUT);
+		assertEquals(4, calls.get());
+		assertEquals(1.0, rejected("circuit_open"));
+
+		Thread.sleep(150);
+		status[0] = HttpStatus.OK;
+		for (int i = 0; i < 2; i++) {
+			StepVerifier.create(client.exchange(get())).expectNextCount(1).verifyComplete();
+		}
+		assertEquals(0.0, state());
+	}
+
+	@Test
+	void aFailedProbeReopensTheCircuit() throws Exception {
+		DownstreamResilience resilience = resilience(100, false);
+		ExchangeFunction client = resilience.forTarget("store-service")
+				.apply(request -> Mono.error(new IllegalStateException("connection refused")));
+
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(client.exchange(get())).expectError(IllegalStateException.class).verify(TIMEOUT);
+		}
+		Thread.sleep(150);
+		StepVerifier.create(client.exchange(get())).expectError(IllegalStateException.class).verify(TIMEOUT);
+
+		assertEquals(1.0, state());
+	}
+
+	@Test
+	void bulkheadRejectsCallsBeyondTheLimit() {
+		DownstreamResilience resilience = resilience(2, false);
+		ExchangeFunction client = resilience.forTarget("store-service").apply(request -> Mono.never());
+
+		Disposable first = client.exchange(get()).subscribe();
+		Disposable second = client.exchange(get()).subscribe();
+		StepVerifier.create(client.exchange(get()))
+				.expectError(ResponseStatusException.class)
+				.verify(TIMEOUT);
+		assertEquals(1.0, rejected("bulkhead_full"));
+
+		// Cancelled calls give their slot back
+		first.dispose();
+		second.dispose();
+		StepVerifier.create(client.exchange(get()).timeout(Duration.ofMillis(50)))
+				.expectError(TimeoutException.class)
+				.verify(TIMEOUT);
+		assertEquals(1.0, rejected("bulkhead_full"));
+	}
+
+	@Test
+	void hedgesASlowGet() {
+		DownstreamResilience resilience = resilience(100, true);
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction client = resilience.forTarget("store-service")
+				.apply(request -> attempts.incrementAndGet() == 1
+						? Mono.never()
+						: Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+		StepVerifier.create(client.exchange(get()).map(ClientResponse::statusCode))
+				.expectNext(HttpStatus.OK)
+				.verifyComplete();
+
+		assertEquals(2, attempts.get());
+		assertEquals(1.0, registry.get(DownstreamResilience.HEDGED).counter().count());
+	}
+
+	@Test
+	void neverHedgesWrites() {
+		DownstreamResilience resilience = resilience(100, true);
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction client = resilience.forTarget("store-service")
+				.apply(request -> {
+					attempts.incrementAndGet();
+					return Mono.just(ClientResponse.create(HttpStatus.OK).build()).delayElement(Duration.ofMillis(100));
+				});
+
+		StepVerifier.create(client.exchange(ClientRequest.create(HttpMethod.POST, URI.create("http://store/stores/exists")).build()))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertEquals(1, attempts.get());
+	}
+
+	private DownstreamResilience resilience(int maxConcurrentCalls, boolean hedge) {
+		// Window of 4 calls, opening at 50 % failures, 100 ms open, 2 probes
+		return new DownstreamResilience(registry, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(2),
+				4, 4, 50, Duration.ofMillis(100), 2, maxConcurrentCalls, hedge, Duration.ofMillis(20));
+	}
+
+	private double state() {
+		return registry.get(DownstreamResilience.CIRCUIT_STATE).gauge().value();
+	}
+
+	private double rejected(String reason) {
+		return registry.get(DownstreamResilience.REJECTED).tag("reason", reason).counter().count();
+	}
+
+	private static ClientRequest get() {
+		return ClientRequest.create(HttpMethod.GET, URI.create("http://store/stores/1")).build();
+	}
+}
@@ -0,0 +1,93 @@
+package com.common.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of per-request JWT decode cost: full RS256 verification, a hit in
+ * {@link CachingJwtDecoder}, and a token carrying the gateway's trusted header.
+ * Run with {@code mvn test -Dgroups=benchmark -DexcludedGroups=none}; results are written
+ * to {@code target/jmh-jwt-decode.json}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecodeBenchmarkTest {
+
+	private JwtDecoder rsa;
+	private JwtDecoder cached;
+	private JwtDecoder trusted;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		TestTokens tokens = new TestTokens();
+		token = tokens.issue("alice", "ADMIN", Instant.now().plus(Duration.ofHours(1)));
+		rsa = tokens.verifier();
+		cached = new CachingJwtDecoder(rsa, 10_000, Duration.ofMinutes(5));
+		cached.decode(token);
+
+		GatewayTrustedJwtDecoder gatewayTrusted = new GatewayTrustedJwtDecoder(rsa, "benchmark-secret");
+		trusted = gatewayTrusted;
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(GatewayTrustedJwtDecoder.HEADER, gatewayTrusted.sign(token));
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@TearDown
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public Jwt rsaVerify() {
+		return rsa.decode(token);
+	}
+
+	@Benchmark
+	public Jwt cacheHit() {
+		return cached.decode(token);
+	}
+
+	@Benchmark
+	public Jwt gatewayTrusted() {
+		return trusted.decode(token);
+	}
+
+	@Test
+	void run() throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtDecodeBenchmarkTest.class.getName() + "\\.")
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/jmh-jwt-decode.json")
+				.build()).run();
+	}
+}
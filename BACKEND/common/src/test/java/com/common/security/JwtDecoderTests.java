@@ -0,0 +1,139 @@
+package com.common.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtDecoderTests {
+
+	private final TestTokens tokens = new TestTokens();
+	private final AtomicInteger verifications = new AtomicInteger();
+	private final JwtDecoder verifier = countingVerifier();
+
+	@AfterEach
+	void clearRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void verifiesEachTokenOnceWhileCached() {
+		CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, 100, Duration.ofMinutes(5));
+		String token = tokens.issue("alice", "ADMIN", Instant.now().plusSeconds(600));
+
+		Jwt first = decoder.decode(token);
+		assertSame(first, decoder.decode(token));
+		assertEquals(1, verifications.get());
+
+		decoder.decode(tokens.issue("bob", "EMPLOYEE", Instant.now().plusSeconds(600)));
+		assertEquals(2, verifications.get());
+	}
+
+	@Test
+	void doesNotServeCachedTokensPastTheirExpiry() {
+		Instant expiresAt = Instant.now().plusSeconds(60);
+		MutableClock clock = new MutableClock(Instant.now());
+		CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, 100, Duration.ofMinutes(5), clock);
+		String token = tokens.issue("alice", "ADMIN", expiresAt);
+
+		decoder.decode(token);
+		clock.now = expiresAt.plusSeconds(1);
+		decoder.decode(token);
+
+		assertEquals(2, verifications.get());
+	}
+
+	@Test
+	void trustsTokensCarryingTheGatewayMac() {
+		GatewayTrustedJwtDecoder decoder = new GatewayTrustedJwtDecoder(verifier, "shared-secret");
+		String token = tokens.issue("alice", "ADMIN", Instant.now().plusSeconds(600));
+		withHeader(decoder.sign(token));
+
+		Jwt jwt = decoder.decode(token);
+
+		assertEquals(0, verifications.get());
+		assertEquals("alice", jwt.getSubject());
+		assertEquals("ADMIN", jwt.getClaimAsString("role"));
+	}
+
+	@Test
+	void verifiesTokensWithoutAValidGatewayMac() {
+		GatewayTrustedJwtDecoder decoder = new GatewayTrustedJwtDecoder(verifier, "shared-secret");
+		GatewayTrustedJwtDecoder forger = new GatewayTrustedJwtDecoder(verifier, "guessed-secret");
+		String token = tokens.issue("alice", "ADMIN", Instant.now().plusSeconds(600));
+
+		decoder.decode(token);
+		withHeader(forger.sign(token));
+		decoder.decode(token);
+		withHeader("not base64 !");
+		decoder.decode(token);
+
+		assertEquals(3, verifications.get());
+	}
+
+	@Test
+	void rejectsExpiredTokensEvenWithTheGatewayMac() {
+		GatewayTrustedJwtDecoder decoder = new GatewayTrustedJwtDecoder(verifier, "shared-secret");
+		String token = tokens.issue("alice", "ADMIN", Instant.now().minusSeconds(600));
+		withHeader(decoder.sign(token));
+
+		assertThrows(JwtException.class, () -> decoder.decode(token));
+
+		withHeader(decoder.sign("not-a-jwt"));
+		assertThrows(BadJwtException.class, () -> decoder.decode("not-a-jwt"));
+		assertEquals(0, verifications.get());
+	}
+
+	private JwtDecoder countingVerifier() {
+		JwtDecoder delegate = tokens.verifier();
+		return token -> {
+			verifications.incrementAndGet();
+			return delegate.decode(token);
+		};
+	}
+
+	private static void withHeader(String mac) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(GatewayTrustedJwtDecoder.HEADER, mac);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.common.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+
+/**
+ * RS256 tokens shaped like the ones auth-service issues, signed with a throwaway key.
+ */
+final class TestTokens {
+
+	private final NimbusJwtEncoder encoder;
+	private final RSAPublicKey publicKey;
+
+	TestTokens() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			KeyPair keyPair = generator.generateKeyPair();
+			this.publicKey = (RSAPublicKey) keyPair.getPublic();
+			RSAKey jwk = new RSAKey.Builder(publicKey).privateKey((RSAPrivateKey) keyPair.getPrivate()).build();
+			this.encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	String issue(String subject, String role, Instant expiresAt) {
+		JwtClaimsSet claims = JwtClaimsSet.builder()
+				.issuer("auth-service")
+				.subject(subject)
+				.issuedAt(expiresAt.minusSeconds(3600))
+				.expiresAt(expiresAt)
+				.claim("role", role)
+				.build();
+		return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+	}
+
+	JwtDecoder verifier() {
+		return NimbusJwtDecoder.withPublicKey(publicKey).build();
+	}
+}
@@ -1,9 +1,14 @@
 package com.retailinventory;
 
+import com.common.monitoring.MetricsConfig;
+import com.common.monitoring.VirtualThreadPinningMonitor;
+import com.common.outbox.OutboxConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import({MetricsConfig.class, VirtualThreadPinningMonitor.class, OutboxConfiguration.class})
 public class InventoryManagementApplication {
 
 	public static void main(String[] args) {
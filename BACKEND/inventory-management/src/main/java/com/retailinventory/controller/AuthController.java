@@ -3,11 +3,13 @@ package com.retailinventory.controller;
 import com.retailinventory.model.User;
 import com.retailinventory.security.JwtUtil;
 import com.retailinventory.service.AuthService;
+import com.retailinventory.service.RefreshTokenService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -22,10 +24,12 @@ public class AuthController {
     
     private final AuthService authService;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthController(AuthService authService, JwtUtil jwtUtil) {
+    public AuthController(AuthService authService, JwtUtil jwtUtil, RefreshTokenService refreshTokenService) {
         this.authService = authService;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/register")
@@ -40,6 +44,8 @@ public class AuthController {
             User registeredUser = authService.registerUser(user);
             registeredUser.setPassword(null);
             return ResponseEntity.ok(registeredUser);
+        } catch (ResponseStatusException e) {
+            throw e;  // ✅ e.g. 503 while the password hashing pool is saturated
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -51,12 +57,30 @@ public class AuthController {
 
         if (user.isPresent()) {
             String token = jwtUtil.generateToken(user.get().getEmail(), user.get().getRole());
-            return ResponseEntity.ok(Map.of("message", "Login Successful", "token", token));
+            String refreshToken = refreshTokenService.issue(user.get());
+            return ResponseEntity.ok(Map.of("message", "Login Successful", "token", token,
+                    "refreshToken", refreshToken, "expiresIn", jwtUtil.getAccessTokenTtl().toSeconds()));
         } else {
             return ResponseEntity.status(401).body("Invalid Credentials");
         }
     }
 
+    // ✅ New access token without the password check; the refresh token is single-use and replaced
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> requestBody) {
+        String refreshToken = requestBody.get("refreshToken");
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return ResponseEntity.status(400).body("Refresh token is required");
+        }
+
+        return refreshTokenService.rotate(refreshToken)
+                .<ResponseEntity<?>>map(rotation -> ResponseEntity.ok(Map.of(
+                        "token", jwtUtil.generateToken(rotation.user().getEmail(), rotation.user().getRole()),
+                        "refreshToken", rotation.refreshToken(),
+                        "expiresIn", jwtUtil.getAccessTokenTtl().toSeconds())))
+                .orElseGet(() -> ResponseEntity.status(401).body(Map.of("message", "Invalid or expired refresh token")));
+    }
+
     @PostMapping("/token/validate")
     public ResponseEntity<?> validateToken(@RequestBody Map<String, String> requestBody) {
         String token = requestBody.get("token");
@@ -0,0 +1,30 @@
+package com.retailinventory.controller;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Public halves of the token signing key and of retired keys, served where api-gateway's
+ * {@code NimbusReactiveJwtDecoder} looks for them. Key IDs are stable, so the response may be cached.
+ */
+@RestController
+public class JwksController {
+    private final Map<String, Object> jwks;
+
+    public JwksController(JWKSet jwtPublicKeys) {
+        this.jwks = jwtPublicKeys.toPublicJWKSet().toJSONObject();
+    }
+
+    @GetMapping("/oauth2/jwks")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwks);
+    }
+}
@@ -1,12 +1,20 @@
 package com.retailinventory.controller;
 
+import com.common.outbox.OutboxFeed;
+import com.common.outbox.OutboxService;
 import com.retailinventory.model.Store;
 import com.retailinventory.service.StoreService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,23 +22,63 @@ import java.util.Optional;
 @RequestMapping("/stores")
 @CrossOrigin(origins = "http://localhost:5173")
 public class StoreController {
+    private static final int MAX_EXISTS_BATCH = 1000;
+    // ✅ Replaces Spring Security's no-store on store reads: browsers revalidate every time (a cheap
+    // 304 with the ETag), the gateway's shared cache may answer for 30s
+    private static final CacheControl STORE_CACHE =
+            CacheControl.maxAge(Duration.ZERO).sMaxAge(Duration.ofSeconds(30)).cachePublic();
     private final StoreService storeService;
+    private final OutboxService outboxService;
 
-    public StoreController(StoreService storeService) {
+    public StoreController(StoreService storeService, OutboxService outboxService) {
         this.storeService = storeService;
+        this.outboxService = outboxService;
     }
 
     // ✅ Get all stores (Accessible to all authenticated users)
     @GetMapping
-    public ResponseEntity<List<Store>> getAllStores() {
-        return ResponseEntity.ok(storeService.getAllStores());
+    public ResponseEntity<List<Store>> getAllStores(WebRequest request) {
+        List<Store> stores = storeService.getAllStores();
+        String etag = etagOf(stores);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(STORE_CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(STORE_CACHE).body(stores);
+    }
+
+    // ✅ Store change feed for replicas (inventory-service), authenticated with X-Replication-Key.
+    // Pass the returned nextAfter as after on the next call.
+    @GetMapping("/events")
+    public ResponseEntity<OutboxFeed> getStoreEvents(@RequestHeader(value = "X-Replication-Key", required = false) String key,
+                                                     @RequestParam(defaultValue = "0") long after,
+                                                     @RequestParam(defaultValue = "500") int limit) {
+        if (!outboxService.isAuthorized(key)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid replication key");
+        }
+        return ResponseEntity.ok(outboxService.readFeed(StoreService.OUTBOX_AGGREGATE, after, limit));
     }
 
     // ✅ Get a store by ID (Accessible to all authenticated users)
     @GetMapping("/{id}")
-    public ResponseEntity<?> getStoreById(@PathVariable Long id) {
+    public ResponseEntity<?> getStoreById(@PathVariable Long id, WebRequest request) {
         Optional<Store> store = storeService.getStoreById(id);
-        return store.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        if (store.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = etagOf(List.of(store.get()));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(STORE_CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(STORE_CACHE).body(store.get());
+    }
+
+    // ✅ Check which of the given store IDs exist (Accessible to all authenticated users)
+    @PostMapping("/exists")
+    public ResponseEntity<?> findExistingStores(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_EXISTS_BATCH) {
+            return ResponseEntity.badRequest().body("At most " + MAX_EXISTS_BATCH + " IDs can be checked at once");
+        }
+        return ResponseEntity.ok(storeService.findExistingStoreIds(ids));
     }
 
     // ✅ Create a new store (Only ADMIN)
@@ -54,4 +102,14 @@ public class StoreController {
         storeService.deleteStore(id);
         return ResponseEntity.ok("Store deleted successfully");
     }
-}
\ No newline at end of file
+
+    // Changes whenever a store is added, removed or updated
+    private static String etagOf(List<Store> stores) {
+        long hash = 1;
+        for (Store store : stores) {
+            long updated = store.getUpdatedAt() == null ? 0 : store.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+            hash = 31 * (31 * hash + store.getId()) + updated;
+        }
+        return "\"" + stores.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+}
@@ -0,0 +1,53 @@
+package com.retailinventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A single-use refresh token. Only the SHA-256 of the token is stored; the token itself is
+ * handed to the client once.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = @Index(name = "idx_refresh_tokens_user", columnList = "userId"))
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, Long userId, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+
+    public String getTokenHash() { return tokenHash; }
+
+    public Long getUserId() { return userId; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,28 @@
+package com.retailinventory.repository;
+
+import com.retailinventory.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // ✅ Single conditional DELETE: of two concurrent refreshes with the same token, only one consumes it
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash and r.expiresAt > :now")
+    int consume(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.userId = :userId and r.expiresAt <= :now")
+    int deleteExpired(@Param("userId") Long userId, @Param("now") Instant now);
+}
@@ -2,11 +2,21 @@ package com.retailinventory.repository;
 
 import com.retailinventory.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByPhoneNumber(String phoneNumber);
+
+    // ✅ Rehash on login: only replaces the hash that was just verified, so a concurrent password change wins
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.password = :replacement where u.id = :id and u.password = :expected")
+    int replacePasswordHash(@Param("id") Long id, @Param("expected") String expected, @Param("replacement") String replacement);
 }
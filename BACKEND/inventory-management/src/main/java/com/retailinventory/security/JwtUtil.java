@@ -1,43 +1,54 @@
 package com.retailinventory.security;
 
+import com.nimbusds.jose.jwk.JWK;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 
 @Component
 public class JwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
+    private final JwsHeader header;
+    private final Duration accessTokenTtl;
 
-    public JwtUtil(JwtEncoder jwtEncoder, JwtDecoder jwtDecoder) {
+    public JwtUtil(JwtEncoder jwtEncoder, JwtDecoder jwtDecoder, JWK jwtSigningKey,
+                   @Value("${security.jwt.access-token-ttl:1h}") Duration accessTokenTtl) {
         this.jwtEncoder = jwtEncoder;
         this.jwtDecoder = jwtDecoder;
+        this.accessTokenTtl = accessTokenTtl;
+        // ✅ Built once: the algorithm follows the signing key, the kid lets verifiers pick it without trying each key
+        this.header = JwsHeader.with(SignatureAlgorithm.from(jwtSigningKey.getAlgorithm().getName()))
+                .keyId(jwtSigningKey.getKeyID())
+                .build();
     }
 
-
     public String generateToken(String username, String role) {
         Instant now = Instant.now();
         JwtClaimsSet claims = JwtClaimsSet.builder()
                 .subject(username)
                 .claim("role", role)
                 .issuedAt(now)
-                .expiresAt(now.plus(1, ChronoUnit.HOURS))
+                .expiresAt(now.plus(accessTokenTtl))
                 .build();
 
-        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
-
         return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
     }
 
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
     public boolean validateToken(String token) {
         try {
             Jwt decodedJwt = jwtDecoder.decode(token);
-            logger.info("Token decoded successfully: {}", decodedJwt.getClaims());
+            logger.debug("Token decoded successfully: {}", decodedJwt.getClaims());
 
             // Check if the token is expired
             Instant expiration = decodedJwt.getExpiresAt();
@@ -46,7 +57,7 @@ public class JwtUtil {
                 return false;
             }
 
-            logger.info("Token is valid.");
+            logger.debug("Token is valid.");
             return true;
         } catch (JwtException e) {
             logger.error("Token validation failed: {}", e.getMessage());
@@ -0,0 +1,160 @@
+package com.retailinventory.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on its own bounded pool, so a login storm occupies at most
+ * {@code threads} cores instead of every request thread. When the queue is full, or a hash is not
+ * done within {@code timeout}, the caller gets a 503 straight away.
+ * <p>
+ * Successful checks are remembered for {@code verified-cache.ttl}. The cache key is an HMAC of
+ * the stored hash and the password under a random per-process key, so the password itself is
+ * never kept, and a changed hash never matches an old entry. Failed checks are not cached.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Cache<String, Boolean> verified;
+    private final SecretKeySpec cacheKey;
+
+    @Autowired
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry registry,
+                          @Value("${security.password.hashing.threads:0}") int threads,
+                          @Value("${security.password.hashing.queue-size:64}") int queueSize,
+                          @Value("${security.password.hashing.timeout:5s}") Duration timeout,
+                          @Value("${security.password.verified-cache.max-size:10000}") long cacheSize,
+                          @Value("${security.password.verified-cache.ttl:2m}") Duration cacheTtl) {
+        this(passwordEncoder, threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueSize, timeout, cacheSize, cacheTtl);
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(registry);
+    }
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, int threads, int queueSize, Duration timeout,
+                          long cacheSize, Duration cacheTtl) {
+        this.encoder = passwordEncoder;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.verified = cacheSize > 0 && !cacheTtl.isZero()
+                ? Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(cacheTtl).build()
+                : null;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks {@code rawPassword} against a stored hash. A match on a hash in an outdated
+     * algorithm or cost also carries its replacement, computed on the same pool task.
+     */
+    public Verification verify(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return Verification.FAILED;
+        }
+        String key = verified != null ? cacheKey(rawPassword, encodedPassword) : null;
+        if (key != null && verified.getIfPresent(key) != null) {
+            return Verification.MATCHED;
+        }
+
+        return submit(() -> {
+            if (!encoder.matches(rawPassword, encodedPassword)) {
+                return Verification.FAILED;
+            }
+            String upgradedHash = encoder.upgradeEncoding(encodedPassword) ? encoder.encode(rawPassword) : null;
+            if (key != null) {
+                verified.put(upgradedHash != null ? cacheKey(rawPassword, upgradedHash) : key, Boolean.TRUE);
+            }
+            return new Verification(true, upgradedHash);
+        });
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent logins, retry shortly");
+        }
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Password hashing timed out, retry shortly");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private String cacheKey(String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Outcome of {@link #verify}; {@code upgradedHash} is set only when the password matched and
+     * its stored hash should be replaced.
+     */
+    public record Verification(boolean matched, String upgradedHash) {
+        static final Verification FAILED = new Verification(false, null);
+        static final Verification MATCHED = new Verification(true, null);
+    }
+}
@@ -0,0 +1,47 @@
+package com.retailinventory.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * The one {@link PasswordEncoder} of the service. New hashes use {@code security.password.algorithm}
+ * and carry an {@code {id}} prefix; existing hashes of any supported algorithm still verify, and
+ * hashes without a prefix (stored before the prefix was introduced) are treated as BCrypt.
+ * Hashes in another algorithm, or with a lower cost than configured, are replaced on the next
+ * successful login (see {@link PasswordHasher}).
+ */
+@Configuration
+public class PasswordHashingConfig {
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism) {
+        return delegatingEncoder(algorithm, bcryptStrength, argon2MemoryKib, argon2Iterations, argon2Parallelism);
+    }
+
+    public static PasswordEncoder delegatingEncoder(String algorithm, int bcryptStrength,
+                                                    int argon2MemoryKib, int argon2Iterations, int argon2Parallelism) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKib, argon2Iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("security.password.algorithm must be one of " + encoders.keySet() + ", was " + algorithm);
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
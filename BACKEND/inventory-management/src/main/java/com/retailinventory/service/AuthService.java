@@ -2,18 +2,23 @@ package com.retailinventory.service;
 
 import com.retailinventory.model.User;
 import com.retailinventory.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.retailinventory.security.PasswordHasher;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
 public class AuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
 
-    public AuthService(UserRepository userRepository) {
+    public AuthService(UserRepository userRepository, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
     }
 
     public User registerUser(User user) {
@@ -25,7 +30,7 @@ public class AuthService {
             throw new RuntimeException("Phone number is already registered");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         return userRepository.save(user);
     }
 
@@ -33,11 +38,25 @@ public class AuthService {
         return userRepository.findByEmail(email);
     }
 
+    // ✅ Dominated by the password hash check; exported as auth_credentials_validation_seconds
+    @Timed("auth.credentials.validation")
     public Optional<User> validateUser(String email, String password) {
         Optional<User> user = userRepository.findByEmail(email);
-        if (user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())) {
-            return user;
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String storedHash = user.get().getPassword();
+        PasswordHasher.Verification verification = passwordHasher.verify(password, storedHash);
+        if (!verification.matched()) {
+            return Optional.empty();
+        }
+        if (verification.upgradedHash() != null) {
+            // ✅ Rehash on login: moves the user to the configured algorithm and cost
+            if (userRepository.replacePasswordHash(user.get().getId(), storedHash, verification.upgradedHash()) == 1) {
+                logger.debug("Upgraded password hash for user {}", user.get().getId());
+            }
         }
-        return Optional.empty();
+        return user;
     }
 }
\ No newline at end of file
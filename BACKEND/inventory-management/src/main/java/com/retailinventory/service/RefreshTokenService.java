@@ -0,0 +1,81 @@
+package com.retailinventory.service;
+
+import com.retailinventory.model.RefreshToken;
+import com.retailinventory.model.User;
+import com.retailinventory.repository.RefreshTokenRepository;
+import com.retailinventory.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Opaque, single-use refresh tokens. A refresh returns a new access token and replaces the
+ * refresh token, so clients stay signed in for {@code refresh-token-ttl} without sending the
+ * password (and paying for its hash check) again.
+ */
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${security.jwt.refresh-token-ttl:14d}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    @Transactional
+    public String issue(User user) {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpired(user.getId(), now);
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(token), user.getId(), now.plus(refreshTokenTtl)));
+        return token;
+    }
+
+    /**
+     * Consumes {@code token} and returns its user with a replacement refresh token; empty when
+     * the token is unknown, expired or already used. Consuming the old token and saving the new
+     * one commit together, so a failed rotation leaves the old token usable.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        String tokenHash = hash(token);
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(tokenHash);
+        // ✅ The conditional DELETE is the claim: of two concurrent refreshes only one removes the row
+        if (stored.isEmpty() || refreshTokenRepository.consume(tokenHash, Instant.now()) != 1) {
+            return Optional.empty();
+        }
+        return userRepository.findById(stored.get().getUserId())
+                .map(user -> new Rotation(user, issue(user)));
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
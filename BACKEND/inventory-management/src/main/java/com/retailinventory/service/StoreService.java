@@ -1,18 +1,30 @@
 package com.retailinventory.service;
 
+import com.common.outbox.OutboxService;
 import com.retailinventory.model.Store;
 import com.retailinventory.repository.StoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class StoreService {
+    public static final String OUTBOX_AGGREGATE = "store";
+    private static final Logger logger = LoggerFactory.getLogger(StoreService.class);
+
     private final StoreRepository storeRepository;
+    private final OutboxService outboxService;
 
-    public StoreService(StoreRepository storeRepository) {
+    public StoreService(StoreRepository storeRepository, OutboxService outboxService) {
         this.storeRepository = storeRepository;
+        this.outboxService = outboxService;
     }
 
     public List<Store> getAllStores() {
@@ -23,26 +35,59 @@ public class StoreService {
         return storeRepository.findById(id);
     }
 
+    public List<Long> findExistingStoreIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return storeRepository.findExistingIds(ids);
+    }
+
+    // ✅ Each change and its outbox event commit together; the row is flushed (locked) first so
+    // concurrent changes to one store get event ids in commit order
+    @Transactional
     public Store createStore(Store store) {
         if (storeRepository.findByName(store.getName()).isPresent()) {
             throw new RuntimeException("A store with this name already exists.");
         }
-        return storeRepository.save(store);
+        Store saved = storeRepository.saveAndFlush(store);
+        outboxService.upserted(OUTBOX_AGGREGATE, saved.getId(), saved);
+        return saved;
     }
 
+    @Transactional
     public Store updateStore(Long id, Store updatedStore) {
         return storeRepository.findById(id).map(existingStore -> {
             existingStore.setName(updatedStore.getName());
             existingStore.setAddress(updatedStore.getAddress());
-            return storeRepository.save(existingStore);
+            Store saved = storeRepository.saveAndFlush(existingStore);
+            outboxService.upserted(OUTBOX_AGGREGATE, id, saved);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Store not found"));
     }
 
+    @Transactional
     public void deleteStore(Long id) {
         if (!storeRepository.existsById(id)) {
             throw new RuntimeException("Store not found");
         }
         storeRepository.deleteById(id);
+        storeRepository.flush();
+        outboxService.deleted(OUTBOX_AGGREGATE, id);
+    }
+
+    /**
+     * Seeds the outbox with the stores that existed before it, once, so replicas starting from
+     * offset 0 receive all of them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOutbox() {
+        if (outboxService.hasEvents(OUTBOX_AGGREGATE)) {
+            return;
+        }
+        List<Store> stores = storeRepository.findAll();
+        stores.forEach(store -> outboxService.upserted(OUTBOX_AGGREGATE, store.getId(), store));
+        logger.info("Outbox seeded with {} existing stores.", stores.size());
     }
 
     public List<Store> findStoresByName(String name) {
@@ -2,7 +2,7 @@ package com.retailinventory.service;
 
 import com.retailinventory.model.User;
 import com.retailinventory.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.retailinventory.security.PasswordHasher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,10 +11,11 @@ import java.util.Optional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
     }
 
     public List<User> getAllUsers() {
@@ -29,7 +30,7 @@ public class UserService {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
             throw new RuntimeException("Email is already registered");
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword())); // Encrypt password
+        user.setPassword(passwordHasher.encode(user.getPassword())); // Encrypt password
         return userRepository.save(user);
     }
 
@@ -0,0 +1,96 @@
+package com.retailinventory.security;
+
+import com.common.security.JwtKeys;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtKeysTests {
+
+	@Test
+	void keyIdIsTheSameOnEveryLoad() throws Exception {
+		Path privateKey = Path.of("src/main/resources/private.pem");
+		Path publicKey = Path.of("src/main/resources/public.pem");
+
+		JWK first = JwtKeys.signingKey(privateKey, publicKey);
+		JWK second = JwtKeys.signingKey(privateKey, publicKey);
+
+		assertEquals(first.getKeyID(), second.getKeyID());
+		assertEquals(first.getKeyID(), JwtKeys.publicKey(publicKey).getKeyID());
+		assertEquals("RS256", first.getAlgorithm().getName());
+	}
+
+	@Test
+	void es256TokensCarryTheKeyIdAndVerify() throws Exception {
+		JWK ecKey = generate("EC");
+		JwtUtil jwtUtil = jwtUtil(ecKey, JwtKeys.decoder(new JWKSet(ecKey.toPublicJWK())));
+
+		String token = jwtUtil.generateToken("alice@example.com", "ADMIN");
+
+		assertTrue(jwtUtil.validateToken(token));
+		Jwt jwt = JwtKeys.decoder(new JWKSet(ecKey.toPublicJWK())).decode(token);
+		assertEquals("ES256", jwt.getHeaders().get("alg"));
+		assertEquals(ecKey.getKeyID(), jwt.getHeaders().get("kid"));
+	}
+
+	@Test
+	void retiredKeysStillVerifyTokensIssuedBeforeRotation() throws Exception {
+		JWK retiredRsa = generate("RSA");
+		JWK currentEc = generate("EC");
+		JwtDecoder decoder = JwtKeys.decoder(new JWKSet(List.of(currentEc.toPublicJWK(), retiredRsa.toPublicJWK())));
+
+		// Issued before key IDs were added to the header
+		JwtClaimsSet claims = JwtClaimsSet.builder()
+				.subject("bob@example.com")
+				.claim("role", "EMPLOYEE")
+				.issuedAt(Instant.now())
+				.expiresAt(Instant.now().plusSeconds(600))
+				.build();
+		String oldToken = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(retiredRsa)))
+				.encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+				.getTokenValue();
+		String newToken = jwtUtil(currentEc, decoder).generateToken("bob@example.com", "EMPLOYEE");
+
+		assertEquals("bob@example.com", decoder.decode(oldToken).getSubject());
+		assertEquals("bob@example.com", decoder.decode(newToken).getSubject());
+
+		JwtDecoder withoutRetired = JwtKeys.decoder(new JWKSet(currentEc.toPublicJWK()));
+		assertThrows(BadJwtException.class, () -> withoutRetired.decode(oldToken));
+	}
+
+	private static JwtUtil jwtUtil(JWK signingKey, JwtDecoder decoder) {
+		return new JwtUtil(new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey))), decoder, signingKey, Duration.ofMinutes(5));
+	}
+
+	private static JWK generate(String algorithm) throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+		if (algorithm.equals("EC")) {
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+		} else {
+			generator.initialize(2048);
+		}
+		KeyPair keyPair = generator.generateKeyPair();
+		return JwtKeys.toJwk(keyPair.getPublic(), keyPair.getPrivate());
+	}
+}
@@ -0,0 +1,136 @@
+package com.retailinventory.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTests {
+
+	private final List<PasswordHasher> hashers = new ArrayList<>();
+
+	@AfterEach
+	void shutDown() {
+		hashers.forEach(PasswordHasher::destroy);
+	}
+
+	@Test
+	void upgradesHashesStoredWithoutPrefixOrWithLowerCost() {
+		PasswordHasher hasher = hasher(PasswordHashingConfig.delegatingEncoder("bcrypt", 5, 1024, 1, 1), 0);
+		String legacy = new BCryptPasswordEncoder(4).encode("s3cret-pass");
+
+		PasswordHasher.Verification verification = hasher.verify("s3cret-pass", legacy);
+		assertTrue(verification.matched());
+		assertTrue(verification.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+
+		PasswordHasher.Verification again = hasher.verify("s3cret-pass", verification.upgradedHash());
+		assertTrue(again.matched());
+		assertNull(again.upgradedHash());
+	}
+
+	@Test
+	void movesBcryptUsersToArgon2OnlyOnSuccessfulLogin() {
+		PasswordHasher hasher = hasher(PasswordHashingConfig.delegatingEncoder("argon2", 4, 1024, 1, 1), 0);
+		String bcrypt = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("s3cret-pass");
+
+		assertEquals(PasswordHasher.Verification.FAILED, hasher.verify("wrong-pass", bcrypt));
+		PasswordHasher.Verification verification = hasher.verify("s3cret-pass", bcrypt);
+		assertTrue(verification.upgradedHash().startsWith("{argon2}$argon2id$"));
+		assertTrue(hasher.verify("s3cret-pass", verification.upgradedHash()).matched());
+	}
+
+	@Test
+	void remembersOnlySuccessfulChecks() {
+		CountingEncoder encoder = new CountingEncoder(PasswordHashingConfig.delegatingEncoder("bcrypt", 4, 1024, 1, 1));
+		PasswordHasher hasher = hasher(encoder, 100);
+		String stored = hasher.encode("s3cret-pass");
+
+		assertTrue(hasher.verify("s3cret-pass", stored).matched());
+		assertTrue(hasher.verify("s3cret-pass", stored).matched());
+		assertFalse(hasher.verify("wrong-pass", stored).matched());
+		assertFalse(hasher.verify("wrong-pass", stored).matched());
+		assertEquals(3, encoder.matches.get());
+
+		String changed = hasher.encode("s3cret-pass");
+		assertTrue(hasher.verify("s3cret-pass", changed).matched());
+		assertEquals(4, encoder.matches.get());
+	}
+
+	@Test
+	void rejectsWithServiceUnavailableWhenThePoolIsSaturated() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder blocking = new CountingEncoder(new BCryptPasswordEncoder(4)) {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.encode(rawPassword);
+			}
+		};
+		PasswordHasher hasher = new PasswordHasher(blocking, 1, 1, Duration.ofSeconds(5), 0, Duration.ZERO);
+		hashers.add(hasher);
+
+		Thread running = Thread.startVirtualThread(() -> hasher.encode("first-pass"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Thread queued = Thread.startVirtualThread(() -> hasher.encode("second-pass"));
+		Thread.sleep(100);
+
+		ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> hasher.encode("third-pass"));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+
+		release.countDown();
+		running.join();
+		queued.join();
+	}
+
+	private PasswordHasher hasher(PasswordEncoder encoder, long cacheSize) {
+		PasswordHasher hasher = new PasswordHasher(encoder, 2, 16, Duration.ofSeconds(10), cacheSize, Duration.ofMinutes(1));
+		hashers.add(hasher);
+		return hasher;
+	}
+
+	private static class CountingEncoder implements PasswordEncoder {
+		private final PasswordEncoder delegate;
+		final AtomicInteger matches = new AtomicInteger();
+
+		CountingEncoder(PasswordEncoder delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return delegate.encode(rawPassword);
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			matches.incrementAndGet();
+			return delegate.matches(rawPassword, encodedPassword);
+		}
+
+		@Override
+		public boolean upgradeEncoding(String encodedPassword) {
+			return delegate.upgradeEncoding(encodedPassword);
+		}
+	}
+}
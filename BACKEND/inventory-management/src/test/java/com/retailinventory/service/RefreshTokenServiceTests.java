@@ -0,0 +1,62 @@
+package com.retailinventory.service;
+
+import com.retailinventory.model.RefreshToken;
+import com.retailinventory.model.User;
+import com.retailinventory.repository.RefreshTokenRepository;
+import com.retailinventory.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTests {
+
+	private static final String TOKEN = "old-refresh-token";
+
+	private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final RefreshTokenService service =
+			new RefreshTokenService(refreshTokenRepository, userRepository, Duration.ofDays(14));
+	private final User user = new User();
+
+	@BeforeEach
+	void setUp() {
+		user.setId(7L);
+		String tokenHash = RefreshTokenService.hash(TOKEN);
+		when(refreshTokenRepository.findByTokenHash(tokenHash))
+				.thenReturn(Optional.of(new RefreshToken(tokenHash, 7L, Instant.now().plusSeconds(60))));
+		when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+	}
+
+	@Test
+	void rotationConsumesTheTokenAndIssuesAReplacement() {
+		when(refreshTokenRepository.consume(eq(RefreshTokenService.hash(TOKEN)), any())).thenReturn(1);
+
+		RefreshTokenService.Rotation rotation = service.rotate(TOKEN).orElseThrow();
+
+		assertEquals(user, rotation.user());
+		assertNotEquals(TOKEN, rotation.refreshToken());
+		verify(refreshTokenRepository).save(any(RefreshToken.class));
+	}
+
+	@Test
+	void aTokenAnotherRefreshAlreadyConsumedIsRejected() {
+		// Found by the lookup, but a concurrent refresh deleted it first
+		when(refreshTokenRepository.consume(eq(RefreshTokenService.hash(TOKEN)), any())).thenReturn(0);
+
+		assertTrue(service.rotate(TOKEN).isEmpty());
+		verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+	}
+}
@@ -0,0 +1,8 @@
+-- Databases created while the entity still declared the covering metrics indexes keep them, because
+-- ddl-auto=update never drops indexes. Run this once on those databases when metrics come from
+-- the rollup table (the default):
+--   psql "$INVENTORY_DB_URL" -f db/drop-movement-metrics-indexes.sql
+DROP INDEX IF EXISTS idx_movements_type_quantity;
+DROP INDEX IF EXISTS idx_movements_store_type_quantity;
+DROP INDEX IF EXISTS idx_movements_product_type_quantity;
+DROP INDEX IF EXISTS idx_movements_date_type_quantity;
@@ -0,0 +1,9 @@
+-- Opt-in covering indexes for inventory.metrics.source=movements, where GET /inventory/movements/metrics
+-- groups inventory_movements itself. They let those GROUP BY queries run as index-only scans.
+-- The default rollup source never reads them, and every movement insert would pay for them,
+-- so they are not declared on the entity. Apply by hand when switching the source:
+--   psql "$INVENTORY_DB_URL" -f db/movement-metrics-indexes.sql
+-- A date-filtered query uses idx_movements_date_id, which the entity already declares.
+CREATE INDEX IF NOT EXISTS idx_movements_type_quantity ON inventory_movements (movement_type, quantity);
+CREATE INDEX IF NOT EXISTS idx_movements_store_type_quantity ON inventory_movements (store_id, movement_type, quantity);
+CREATE INDEX IF NOT EXISTS idx_movements_product_type_quantity ON inventory_movements (product_id, movement_type, quantity);
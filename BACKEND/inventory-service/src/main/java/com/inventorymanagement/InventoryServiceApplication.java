@@ -1,9 +1,17 @@
 package com.inventorymanagement;
 
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.monitoring.MetricsConfig;
+import com.common.monitoring.VirtualThreadPinningMonitor;
+import com.common.resilience.DownstreamResilience;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@Import({MetricsConfig.class, VirtualThreadPinningMonitor.class, DownstreamResilience.class, DownstreamCallMetrics.class})
+@EnableScheduling
 public class InventoryServiceApplication {
 
 	public static void main(String[] args) {
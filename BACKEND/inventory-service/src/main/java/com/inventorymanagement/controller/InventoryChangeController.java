@@ -0,0 +1,66 @@
+package com.inventorymanagement.controller;
+
+import com.inventorymanagement.model.InventoryChange;
+import com.inventorymanagement.service.InventoryChangeStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Live stock changes as server-sent events, replacing polling of the inventory and movement
+ * lists. Each event carries the movement id as its SSE id, so a browser {@code EventSource}
+ * reconnects with {@code Last-Event-ID} and misses nothing; other clients pass {@code after}.
+ * See {@link InventoryChangeSocketHandler} for the WebSocket variant.
+ */
+@RestController
+@RequestMapping("/inventory/changes")
+public class InventoryChangeController {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryChangeController.class);
+
+    private final InventoryChangeStream changeStream;
+    private final Duration heartbeat;
+
+    public InventoryChangeController(InventoryChangeStream changeStream,
+                                     @Value("${inventory.changes.heartbeat:15s}") Duration heartbeat) {
+        this.changeStream = changeStream;
+        this.heartbeat = heartbeat;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public Flux<ServerSentEvent<InventoryChange>> streamChanges(@RequestParam(required = false) Long storeId,
+                                                                @RequestParam(required = false) Long productId,
+                                                                @RequestParam(required = false) Long after,
+                                                                @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long afterId = lastEventId != null ? lastEventId : after;
+        logger.debug("Change stream opened: store={}, product={}, after={}", storeId, productId, afterId);
+
+        Flux<ServerSentEvent<InventoryChange>> changes = changeStream.changes(storeId, productId, afterId)
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(String.valueOf(change.movementId()))
+                        .event("movement")
+                        .build())
+                // ✅ A full buffer ends the response; EventSource reconnects and resumes from the last id
+                .onErrorResume(Exceptions::isOverflow, e -> Flux.just(ServerSentEvent.<InventoryChange>builder()
+                        .comment("subscriber fell behind, reconnect to resume")
+                        .build()));
+        // Comment lines keep idle connections open through proxies and the gateway
+        Flux<ServerSentEvent<InventoryChange>> heartbeats = Flux.interval(heartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<InventoryChange>builder().comment("keep-alive").build());
+
+        return changes.publish(shared -> Flux.merge(shared, heartbeats.takeUntilOther(shared.ignoreElements())));
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventorymanagement.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.ServletWebSocketHandlerRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class InventoryChangeSocketConfig implements WebSocketConfigurer {
+    private final InventoryChangeSocketHandler handler;
+    private final String[] allowedOrigins;
+
+    public InventoryChangeSocketConfig(InventoryChangeSocketHandler handler,
+                                       @Value("${inventory.changes.allowed-origins:http://localhost:5173}") String[] allowedOrigins) {
+        this.handler = handler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, "/inventory/changes/ws").setAllowedOrigins(allowedOrigins);
+        // ✅ Ahead of the controllers, otherwise PUT /inventory/{storeId}/{productId} claims the path and answers 405
+        if (registry instanceof ServletWebSocketHandlerRegistry servletRegistry) {
+            servletRegistry.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventorymanagement.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.model.InventoryChange;
+import com.inventorymanagement.service.InventoryChangeStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * WebSocket variant of {@link InventoryChangeController}: one JSON {@link InventoryChange} per
+ * text message, with the same {@code storeId}, {@code productId} and {@code after} query
+ * parameters. A subscriber that falls behind is closed with {@code 4500 SESSION_NOT_RELIABLE};
+ * the client reconnects with {@code after} set to the last {@code movementId} it received.
+ */
+@Component
+public class InventoryChangeSocketHandler extends TextWebSocketHandler {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryChangeSocketHandler.class);
+    private static final String SUBSCRIPTION = InventoryChangeSocketHandler.class.getName() + ".subscription";
+
+    private final InventoryChangeStream changeStream;
+    private final ObjectMapper objectMapper;
+    private final Duration sendTimeLimit;
+    private final int sendBufferSize;
+
+    public InventoryChangeSocketHandler(InventoryChangeStream changeStream, ObjectMapper objectMapper,
+                                        @Value("${inventory.changes.websocket.send-time-limit:10s}") Duration sendTimeLimit,
+                                        @Value("${inventory.changes.websocket.send-buffer-size:524288}") int sendBufferSize) {
+        this.changeStream = changeStream;
+        this.objectMapper = objectMapper;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        Long storeId;
+        Long productId;
+        Long after;
+        try {
+            storeId = longParam(params, "storeId");
+            productId = longParam(params, "productId");
+            after = longParam(params, "after");
+        } catch (NumberFormatException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("storeId, productId and after must be numbers"));
+            return;
+        }
+
+        // ✅ Bounded send buffer per session; a stalled socket is closed instead of piling up messages
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session, (int) sendTimeLimit.toMillis(), sendBufferSize);
+        Disposable subscription = changeStream.changes(storeId, productId, after)
+                // Socket writes block, so they run off the committing thread that emits the change
+                .publishOn(Schedulers.boundedElastic(), 32)
+                .subscribe(change -> send(out, change),
+                        error -> close(session, Exceptions.isOverflow(error) ? CloseStatus.SESSION_NOT_RELIABLE : CloseStatus.SERVER_ERROR),
+                        () -> close(session, CloseStatus.NORMAL));
+        session.getAttributes().put(SUBSCRIPTION, subscription);
+        logger.debug("Change socket {} opened: store={}, product={}, after={}", session.getId(), storeId, productId, after);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().remove(SUBSCRIPTION) instanceof Disposable subscription) {
+            subscription.dispose();
+        }
+    }
+
+    private void send(WebSocketSession session, InventoryChange change) {
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(change)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + change, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void close(WebSocketSession session, CloseStatus status) {
+        try {
+            if (session.isOpen()) {
+                session.close(status);
+            }
+        } catch (IOException e) {
+            logger.debug("Closing change socket {} failed", session.getId(), e);
+        }
+    }
+
+    private static Long longParam(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        return value == null || value.isBlank() ? null : Long.valueOf(value);
+    }
+}
@@ -1,13 +1,28 @@
 package com.inventorymanagement.controller;
 
+import com.inventorymanagement.model.BatchMovementResult;
 import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.MetricsGrouping;
+import com.inventorymanagement.model.MovementFilter;
+import com.inventorymanagement.model.MovementMetric;
+import com.inventorymanagement.model.MovementPage;
+import com.inventorymanagement.model.RollupMismatch;
+import com.inventorymanagement.service.BatchMovementService;
 import com.inventorymanagement.service.InventoryMovementService;
+import com.inventorymanagement.service.MovementRollupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,10 +30,15 @@ import java.util.Map;
 @RequestMapping("/inventory/movements")
 public class InventoryMovementController {
     private final InventoryMovementService movementService;
+    private final BatchMovementService batchMovementService;
+    private final MovementRollupService rollupService;
     private static final Logger logger = LoggerFactory.getLogger(InventoryMovementController.class);
 
-    public InventoryMovementController(InventoryMovementService movementService) {
+    public InventoryMovementController(InventoryMovementService movementService, BatchMovementService batchMovementService,
+                                       MovementRollupService rollupService) {
         this.movementService = movementService;
+        this.batchMovementService = batchMovementService;
+        this.rollupService = rollupService;
     }
 
     @GetMapping
@@ -35,10 +55,104 @@ public class InventoryMovementController {
         return ResponseEntity.ok(movementService.getMovementsByStore(storeId));
     }
 
+    /**
+     * Keyset-paginated history, newest first. Pass the returned {@code nextCursor} as {@code after}
+     * to fetch the next page; {@code from} is inclusive and {@code to} exclusive.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MovementPage> getMovementPage(@RequestParam(required = false) Long storeId,
+                                                        @RequestParam(required = false) Long productId,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "100") int size) {
+        MovementFilter filter = new MovementFilter(storeId, productId, from, to);
+        return ResponseEntity.ok(movementService.getMovementPage(filter, after, size));
+    }
+
+    /**
+     * Full history matching the filters as newline-delimited JSON, streamed from a database cursor.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamMovements(@RequestParam(required = false) Long storeId,
+                                                                 @RequestParam(required = false) Long productId,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        MovementFilter filter = new MovementFilter(storeId, productId, from, to);
+        logger.info("ADMIN is streaming inventory movements: {}", filter);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> movementService.streamMovements(filter, out));
+    }
+
     @GetMapping("/metrics")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Long>> getMovementMetrics() {
         logger.info("ADMIN is accessing inventory movement metrics.");
         return ResponseEntity.ok(movementService.getMovementMetrics());
     }
+
+    /**
+     * Counts and quantity sums per movement type, grouped by {@code store}, {@code product},
+     * {@code hour} or {@code day}.
+     */
+    @GetMapping("/metrics/breakdown")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<MovementMetric>> getMovementBreakdown(@RequestParam(defaultValue = "day") String by,
+                                                                     @RequestParam(required = false) Long storeId,
+                                                                     @RequestParam(required = false) Long productId,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        MetricsGrouping grouping;
+        try {
+            grouping = MetricsGrouping.valueOf(by.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "by must be one of store, product, hour, day");
+        }
+        logger.info("ADMIN is accessing inventory movement metrics by {}.", by);
+        return ResponseEntity.ok(movementService.getMovementBreakdown(grouping, new MovementFilter(storeId, productId, from, to)));
+    }
+
+    /**
+     * Rebuilds the metrics rollup from the movement table for {@code [from, to)}, widened to whole
+     * hours. Without bounds the whole history is rebuilt.
+     */
+    @PostMapping("/metrics/rollup/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> backfillRollup(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("ADMIN is rebuilding movement rollups for [{}, {}).", from, to);
+        return ResponseEntity.ok(Map.of("buckets", rollupService.backfill(from, to)));
+    }
+
+    /**
+     * Rollup buckets in {@code [from, to)} that disagree with the movement table; read-only.
+     */
+    @GetMapping("/metrics/rollup/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RollupMismatch>> checkRollup(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(rollupService.check(from, to));
+    }
+
+    /**
+     * Rebuilds the rollup hours in {@code [from, to)} that disagree with the movement table and
+     * returns the mismatches that were found.
+     */
+    @PostMapping("/metrics/rollup/repair")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RollupMismatch>> repairRollup(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("ADMIN is repairing movement rollups for [{}, {}).", from, to);
+        return ResponseEntity.ok(rollupService.repair(from, to));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<BatchMovementResult> applyBatch(InputStream body) {
+        logger.info("Received batch of inventory movements.");
+        return ResponseEntity.ok(batchMovementService.applyBatch(body));
+    }
 }
\ No newline at end of file
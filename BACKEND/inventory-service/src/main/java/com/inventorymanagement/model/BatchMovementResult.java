@@ -0,0 +1,16 @@
+package com.inventorymanagement.model;
+
+import java.util.List;
+
+/**
+ * Outcome of {@code POST /inventory/movements/batch}: one {@link Row} per uploaded row,
+ * in upload order, plus throughput figures for the whole batch.
+ */
+public record BatchMovementResult(int received, int applied, int rejected, long elapsedMillis, double rowsPerSecond,
+                                  List<Row> results) {
+
+    public enum Status { APPLIED, REJECTED }
+
+    public record Row(int index, Status status, String message) {
+    }
+}
@@ -21,6 +21,10 @@ public class Inventory {
     @Column(nullable = false)
     private int quantity;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     // ✅ Getters and Setters
     public Long getId() {
         return id;
@@ -53,4 +57,8 @@ public class Inventory {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
\ No newline at end of file
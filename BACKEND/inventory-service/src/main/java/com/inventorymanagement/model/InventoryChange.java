@@ -0,0 +1,20 @@
+package com.inventorymanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One applied stock movement as pushed to change stream subscribers. {@code movementId} is the
+ * {@code inventory_movements} id and doubles as the SSE event id clients resume from.
+ */
+public record InventoryChange(Long movementId, Long storeId, Long productId, String movementType, int quantity,
+                              LocalDateTime movementDate) {
+
+    public static InventoryChange of(InventoryMovement movement) {
+        return new InventoryChange(movement.getId(), movement.getStoreId(), movement.getProductId(),
+                movement.getMovementType(), movement.getQuantity(), movement.getMovementDate());
+    }
+
+    public boolean matches(Long storeId, Long productId) {
+        return (storeId == null || storeId.equals(this.storeId)) && (productId == null || productId.equals(this.productId));
+    }
+}
@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_movements")
+@Table(name = "inventory_movements", indexes = {
+        // Keyset pagination and streaming order by (movement_date, id)
+        @Index(name = "idx_movements_date_id", columnList = "movement_date, id"),
+        @Index(name = "idx_movements_store_date_id", columnList = "store_id, movement_date, id"),
+        @Index(name = "idx_movements_product_date_id", columnList = "product_id, movement_date, id")
+        // Metrics come from the hourly rollups; the covering indexes for inventory.metrics.source=movements
+        // are opt-in DDL in db/movement-metrics-indexes.sql, so inserts do not pay for them by default
+})
 public class InventoryMovement {
 
     @Id
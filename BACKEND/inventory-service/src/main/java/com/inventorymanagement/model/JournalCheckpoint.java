@@ -0,0 +1,29 @@
+package com.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a write-behind journal segment as applied, so replaying it again after a crash
+ * between commit and file deletion is a no-op.
+ */
+@Entity
+@Table(name = "inventory_journal_checkpoints")
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String segment;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt = LocalDateTime.now();
+
+    public JournalCheckpoint() {}
+
+    public JournalCheckpoint(String segment) {
+        this.segment = segment;
+    }
+
+    public String getSegment() { return segment; }
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+}
@@ -0,0 +1,8 @@
+package com.inventorymanagement.model;
+
+/**
+ * Dimension a movement metrics breakdown is grouped by, besides the movement type.
+ */
+public enum MetricsGrouping {
+    STORE, PRODUCT, HOUR, DAY
+}
@@ -0,0 +1,33 @@
+package com.inventorymanagement.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the movement history, ordered by {@code (movement_date, id)} descending.
+ * Clients treat the encoded form as opaque and pass it back as {@code after}.
+ */
+public record MovementCursor(LocalDateTime movementDate, Long id) {
+
+    public static MovementCursor of(InventoryMovement movement) {
+        return new MovementCursor(movement.getMovementDate(), movement.getId());
+    }
+
+    public String encode() {
+        String raw = movementDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static MovementCursor decode(String value) {
+        String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new MovementCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventorymanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for movement history queries. {@code from} is inclusive and {@code to}
+ * exclusive; {@code null} fields are not applied.
+ */
+public record MovementFilter(Long storeId, Long productId, LocalDateTime from, LocalDateTime to) {
+}
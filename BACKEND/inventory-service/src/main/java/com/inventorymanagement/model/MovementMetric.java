@@ -0,0 +1,8 @@
+package com.inventorymanagement.model;
+
+/**
+ * One row of a metrics breakdown. {@code bucket} is the store ID, the product ID or the start
+ * of the hour/day depending on the {@link MetricsGrouping}.
+ */
+public record MovementMetric(String bucket, String movementType, long movements, long quantity) {
+}
@@ -0,0 +1,9 @@
+package com.inventorymanagement.model;
+
+import java.util.List;
+
+/**
+ * One page of movement history. {@code nextCursor} is {@code null} on the last page.
+ */
+public record MovementPage(List<InventoryMovement> items, String nextCursor) {
+}
@@ -0,0 +1,68 @@
+package com.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Pre-aggregated movement counters per store, product, movement type and hour. Rows are
+ * maintained in the same transaction that records the movement, see
+ * {@link com.inventorymanagement.repository.MovementRollupRepository}.
+ */
+@Entity
+@Table(name = "inventory_movement_rollups", indexes = {
+        @Index(name = "idx_rollups_bucket", columnList = "bucket_start")
+})
+@IdClass(MovementRollup.Key.class)
+public class MovementRollup {
+
+    @Id
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "movement_type")
+    private String movementType;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "movement_count", nullable = false)
+    private long movementCount;
+
+    @Column(name = "quantity_sum", nullable = false)
+    private long quantitySum;
+
+    public Long getStoreId() { return storeId; }
+    public Long getProductId() { return productId; }
+    public String getMovementType() { return movementType; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getMovementCount() { return movementCount; }
+    public long getQuantitySum() { return quantitySum; }
+
+    public static class Key implements Serializable {
+        private Long storeId;
+        private Long productId;
+        private String movementType;
+        private LocalDateTime bucketStart;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(storeId, key.storeId) && Objects.equals(productId, key.productId)
+                    && Objects.equals(movementType, key.movementType) && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(storeId, productId, movementType, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventorymanagement.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * An outbox event as served by the {@code /stores/events} and {@code /products/events} feeds.
+ */
+public record ReferenceEvent(long id, Long aggregateId, String eventType, JsonNode payload) {
+    public static final String UPSERTED = "UPSERTED";
+    public static final String DELETED = "DELETED";
+}
@@ -0,0 +1,9 @@
+package com.inventorymanagement.model;
+
+import java.util.List;
+
+/**
+ * One page of an outbox feed; {@code nextAfter} is the offset to request next.
+ */
+public record ReferenceFeed(List<ReferenceEvent> events, long nextAfter) {
+}
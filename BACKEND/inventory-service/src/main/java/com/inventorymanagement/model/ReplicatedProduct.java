@@ -0,0 +1,42 @@
+package com.inventorymanagement.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Local copy of a product owned by product-service, kept current from {@code GET /products/events}.
+ */
+@Entity
+@Table(name = "replicated_products", indexes = {
+        @Index(name = "idx_replicated_products_store", columnList = "store_id")
+})
+public class ReplicatedProduct extends ReplicatedReference {
+
+    private String name;
+    private BigDecimal price;
+    private String category;
+
+    @Column(name = "store_id")
+    private Long storeId;
+
+    public ReplicatedProduct() {}
+
+    public ReplicatedProduct(Long id) {
+        super(id);
+    }
+
+    @Override
+    public void copyFrom(JsonNode payload) {
+        name = payload.path("name").asText(null);
+        price = payload.hasNonNull("price") ? payload.get("price").decimalValue() : null;
+        category = payload.path("category").asText(null);
+        storeId = payload.hasNonNull("storeId") ? payload.get("storeId").asLong() : null;
+    }
+
+    public String getName() { return name; }
+    public BigDecimal getPrice() { return price; }
+    public String getCategory() { return category; }
+    public Long getStoreId() { return storeId; }
+}
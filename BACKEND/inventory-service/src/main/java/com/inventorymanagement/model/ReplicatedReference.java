@@ -0,0 +1,41 @@
+package com.inventorymanagement.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+
+/**
+ * A row copied from another service's outbox feed. The id is the owner's id; {@code lastEventId}
+ * is the outbox event the row reflects, so replayed or out-of-order events older than that are
+ * ignored. Deletions are kept as tombstones for the same reason.
+ */
+@MappedSuperclass
+public abstract class ReplicatedReference {
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    protected ReplicatedReference() {}
+
+    protected ReplicatedReference(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Copies the owner's fields from an {@code UPSERTED} event payload.
+     */
+    public abstract void copyFrom(JsonNode payload);
+
+    public Long getId() { return id; }
+
+    public long getLastEventId() { return lastEventId; }
+    public void setLastEventId(long lastEventId) { this.lastEventId = lastEventId; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+}
@@ -0,0 +1,30 @@
+package com.inventorymanagement.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+
+/**
+ * Local copy of a store owned by auth-service, kept current from {@code GET /stores/events}.
+ */
+@Entity
+@Table(name = "replicated_stores")
+public class ReplicatedStore extends ReplicatedReference {
+
+    private String name;
+    private String address;
+
+    public ReplicatedStore() {}
+
+    public ReplicatedStore(Long id) {
+        super(id);
+    }
+
+    @Override
+    public void copyFrom(JsonNode payload) {
+        name = payload.path("name").asText(null);
+        address = payload.path("address").asText(null);
+    }
+
+    public String getName() { return name; }
+    public String getAddress() { return address; }
+}
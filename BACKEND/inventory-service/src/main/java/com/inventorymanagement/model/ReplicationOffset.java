@@ -0,0 +1,29 @@
+package com.inventorymanagement.model;
+
+import jakarta.persistence.*;
+
+/**
+ * How far a replicated feed has been applied; committed together with the rows it covers.
+ */
+@Entity
+@Table(name = "replication_offsets")
+public class ReplicationOffset {
+
+    @Id
+    @Column(length = 32)
+    private String source;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    public ReplicationOffset() {}
+
+    public ReplicationOffset(String source, long lastEventId) {
+        this.source = source;
+        this.lastEventId = lastEventId;
+    }
+
+    public String getSource() { return source; }
+    public long getLastEventId() { return lastEventId; }
+    public void setLastEventId(long lastEventId) { this.lastEventId = lastEventId; }
+}
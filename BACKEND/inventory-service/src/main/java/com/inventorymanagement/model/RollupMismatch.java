@@ -0,0 +1,10 @@
+package com.inventorymanagement.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A rollup bucket whose counters differ from what {@code inventory_movements} holds.
+ */
+public record RollupMismatch(Long storeId, Long productId, String movementType, LocalDateTime bucketStart,
+                             long expectedCount, long actualCount, long expectedQuantity, long actualQuantity) {
+}
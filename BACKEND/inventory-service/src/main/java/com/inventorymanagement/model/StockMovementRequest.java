@@ -0,0 +1,7 @@
+package com.inventorymanagement.model;
+
+/**
+ * One row of a batch stock movement upload.
+ */
+public record StockMovementRequest(Long storeId, Long productId, int quantity, Long userId, String movementType) {
+}
@@ -0,0 +1,49 @@
+package com.inventorymanagement.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Stock movement counters. {@code path} is the write path that took the decision:
+ * {@code direct}, {@code write-behind} or {@code batch}.
+ * <ul>
+ *     <li>{@value #MOVEMENTS} – accepted movements by {@code type} (ENTRY/EXIT)</li>
+ *     <li>{@value #REJECTIONS} – EXIT movements refused for lack of stock</li>
+ * </ul>
+ */
+@Component
+public class InventoryMetrics {
+    public static final String MOVEMENTS = "inventory.movements";
+    public static final String REJECTIONS = "inventory.stock.rejections";
+
+    private final MeterRegistry registry;
+
+    public InventoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void movementRecorded(String path, String movementType) {
+        movementsRecorded(path, movementType, 1);
+    }
+
+    public void movementsRecorded(String path, String movementType, long count) {
+        Counter.builder(MOVEMENTS)
+                .description("Stock movements applied")
+                .tag("path", path)
+                .tag("type", movementType.toUpperCase(Locale.ROOT))
+                .register(registry)
+                .increment(count);
+    }
+
+    public void insufficientStock(String path) {
+        Counter.builder(REJECTIONS)
+                .description("Stock movements rejected")
+                .tag("path", path)
+                .tag("reason", "insufficient_stock")
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,26 @@
+package com.inventorymanagement.repository;
+
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.MovementCursor;
+import com.inventorymanagement.model.MovementFilter;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset queries over {@code inventory_movements}, newest first by {@code (movement_date, id)}.
+ */
+public interface InventoryMovementQueries {
+
+    /**
+     * Up to {@code limit} movements strictly after {@code after} in history order, or from the
+     * newest movement when {@code after} is {@code null}.
+     */
+    List<InventoryMovement> findPage(MovementFilter filter, MovementCursor after, int limit);
+
+    /**
+     * Streams every matching movement from a server-side cursor. Must be consumed and closed
+     * inside a transaction; callers should detach entities they are done with.
+     */
+    Stream<InventoryMovement> streamAll(MovementFilter filter, int fetchSize);
+}
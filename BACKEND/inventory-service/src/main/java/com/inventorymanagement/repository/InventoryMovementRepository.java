@@ -1,12 +1,25 @@
 package com.inventorymanagement.repository;
 
 import com.inventorymanagement.model.InventoryMovement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long>, InventoryMovementQueries {
     List<InventoryMovement> findByStoreId(Long storeId);
-}
\ No newline at end of file
+
+    @Query("select m.movementType, count(m) from InventoryMovement m group by m.movementType")
+    List<Object[]> countByMovementType();
+
+    // ✅ Change stream replay: movements after a given id, oldest first, on the primary key range
+    @Query("select m from InventoryMovement m where m.id > :afterId " +
+            "and (:storeId is null or m.storeId = :storeId) and (:productId is null or m.productId = :productId) " +
+            "order by m.id")
+    List<InventoryMovement> findChangesAfter(@Param("afterId") Long afterId, @Param("storeId") Long storeId,
+                                             @Param("productId") Long productId, Limit limit);
+}
@@ -2,11 +2,29 @@ package com.inventorymanagement.repository;
 
 import com.inventorymanagement.model.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByStoreIdAndProductId(Long storeId, Long productId);
+    List<Inventory> findByStoreIdAndProductIdIn(Long storeId, Collection<Long> productIds);
+    boolean existsByStoreIdAndProductId(Long storeId, Long productId);
+
+    // ✅ Single conditional statement: the row lock is held only for the UPDATE itself and stock never goes negative
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Inventory i set i.quantity = i.quantity - :quantity, i.version = i.version + 1 " +
+            "where i.storeId = :storeId and i.productId = :productId and i.quantity >= :quantity")
+    int decrementIfAvailable(@Param("storeId") Long storeId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Inventory i set i.quantity = i.quantity + :quantity, i.version = i.version + 1 " +
+            "where i.storeId = :storeId and i.productId = :productId")
+    int increment(@Param("storeId") Long storeId, @Param("productId") Long productId, @Param("quantity") int quantity);
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.inventorymanagement.repository;
+
+import com.inventorymanagement.model.InventoryMovement;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts movement log rows with JDBC batch statements. Hibernate cannot batch inserts for
+ * IDENTITY ids, so bulk paths write {@code inventory_movements} through here instead of
+ * {@link InventoryMovementRepository#saveAll}. The generated ids are read back from the same
+ * batch and set on the movements, which the change stream uses as event ids.
+ */
+@Repository
+@Timed("inventory.db.queries")
+public class MovementBatchWriter {
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO inventory_movements (store_id, product_id, user_id, quantity, movement_type, movement_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public MovementBatchWriter(JdbcTemplate jdbcTemplate,
+                               @Value("${inventory.batch.insert-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void insertAll(List<InventoryMovement> movements) {
+        for (int from = 0; from < movements.size(); from += batchSize) {
+            insertChunk(movements.subList(from, Math.min(from + batchSize, movements.size())));
+        }
+    }
+
+    private void insertChunk(List<InventoryMovement> chunk) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_MOVEMENT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        InventoryMovement movement = chunk.get(i);
+                        ps.setLong(1, movement.getStoreId());
+                        ps.setLong(2, movement.getProductId());
+                        ps.setLong(3, movement.getUserId());
+                        ps.setInt(4, movement.getQuantity());
+                        ps.setString(5, movement.getMovementType());
+                        ps.setTimestamp(6, Timestamp.valueOf(movement.getMovementDate()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < generated.size() && i < chunk.size(); i++) {
+            Object id = generated.get(i).values().iterator().next();
+            chunk.get(i).setId(((Number) id).longValue());
+        }
+    }
+}
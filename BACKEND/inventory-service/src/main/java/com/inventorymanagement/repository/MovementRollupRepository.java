@@ -0,0 +1,186 @@
+package com.inventorymanagement.repository;
+
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.MetricsGrouping;
+import com.inventorymanagement.model.MovementFilter;
+import com.inventorymanagement.model.MovementMetric;
+import com.inventorymanagement.model.RollupMismatch;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maintains and reads {@code inventory_movement_rollups}. {@link #add} must run in the
+ * transaction that inserts the movements so counters and movements commit together.
+ */
+@Repository
+@Timed("inventory.db.queries")
+public class MovementRollupRepository {
+    private static final String INCREMENT =
+            "UPDATE inventory_movement_rollups SET movement_count = movement_count + ?, quantity_sum = quantity_sum + ?"
+                    + " WHERE store_id = ? AND product_id = ? AND movement_type = ? AND bucket_start = ?";
+    private static final String INSERT =
+            "INSERT INTO inventory_movement_rollups (store_id, product_id, movement_type, bucket_start, movement_count, quantity_sum)"
+                    + " VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String GROUPED_MOVEMENTS =
+            "SELECT store_id, product_id, movement_type, date_trunc('hour', movement_date) AS bucket_start,"
+                    + " COUNT(*) AS movement_count, COALESCE(SUM(quantity), 0) AS quantity_sum FROM inventory_movements";
+    private static final String GROUP_BY_BUCKET = " GROUP BY store_id, product_id, movement_type, date_trunc('hour', movement_date)";
+
+    // Keys are updated in a fixed order so concurrent transactions cannot deadlock on rollup rows
+    private static final Comparator<BucketKey> KEY_ORDER = Comparator.comparing(BucketKey::storeId)
+            .thenComparing(BucketKey::productId)
+            .thenComparing(BucketKey::movementType)
+            .thenComparing(BucketKey::bucketStart);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MovementRollupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static LocalDateTime bucketOf(LocalDateTime movementDate) {
+        return movementDate.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public void add(Collection<InventoryMovement> movements) {
+        Map<BucketKey, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        for (InventoryMovement movement : movements) {
+            BucketKey key = new BucketKey(movement.getStoreId(), movement.getProductId(), movement.getMovementType(),
+                    bucketOf(movement.getMovementDate()));
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0]++;
+            delta[1] += movement.getQuantity();
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<BucketKey, long[]>> entries = new ArrayList<>(deltas.entrySet());
+        int[] updated = jdbcTemplate.getJdbcTemplate().batchUpdate(INCREMENT, entries.stream()
+                .map(entry -> incrementArgs(entry.getKey(), entry.getValue()))
+                .toList());
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                BucketKey key = entries.get(i).getKey();
+                long[] delta = entries.get(i).getValue();
+                int inserted = jdbcTemplate.getJdbcTemplate().update(INSERT, key.storeId(), key.productId(), key.movementType(),
+                        Timestamp.valueOf(key.bucketStart()), delta[0], delta[1]);
+                if (inserted == 0) {
+                    // Another transaction created the bucket in between
+                    jdbcTemplate.getJdbcTemplate().update(INCREMENT, incrementArgs(key, delta));
+                }
+            }
+        }
+    }
+
+    public Map<String, Long> countByMovementType() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT movement_type, SUM(movement_count) AS movements FROM inventory_movement_rollups GROUP BY movement_type",
+                rs -> {
+                    counts.put(rs.getString("movement_type"), rs.getLong("movements"));
+                });
+        return counts;
+    }
+
+    /**
+     * Same result as {@link MovementMetricsRepository#breakdown} for hour-aligned date filters.
+     */
+    public List<MovementMetric> breakdown(MetricsGrouping grouping, MovementFilter filter) {
+        String bucket = switch (grouping) {
+            case STORE -> "store_id";
+            case PRODUCT -> "product_id";
+            case HOUR -> "bucket_start";
+            case DAY -> "date_trunc('day', bucket_start)";
+        };
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT " + bucket + " AS bucket, movement_type, SUM(movement_count) AS movements, SUM(quantity_sum) AS quantity"
+                + " FROM inventory_movement_rollups" + MovementMetricsRepository.where(filter, params, "bucket_start")
+                + " GROUP BY " + bucket + ", movement_type"
+                + " ORDER BY 1, 2";
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            Object value = rs.getObject("bucket");
+            String label = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : String.valueOf(value);
+            return new MovementMetric(label, rs.getString("movement_type"), rs.getLong("movements"), rs.getLong("quantity"));
+        });
+    }
+
+    /**
+     * Recomputes every bucket in {@code [from, to)} from {@code inventory_movements}. Both bounds
+     * must be hour-aligned; {@code null} means unbounded.
+     *
+     * @return number of buckets written
+     */
+    public int rebuild(LocalDateTime from, LocalDateTime to) {
+        MovementFilter window = new MovementFilter(null, null, from, to);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        jdbcTemplate.update("DELETE FROM inventory_movement_rollups" + MovementMetricsRepository.where(window, params, "bucket_start"), params);
+
+        params = new MapSqlParameterSource();
+        return jdbcTemplate.update("INSERT INTO inventory_movement_rollups"
+                + " (store_id, product_id, movement_type, bucket_start, movement_count, quantity_sum) "
+                + GROUPED_MOVEMENTS + MovementMetricsRepository.where(window, params, "movement_date") + GROUP_BY_BUCKET, params);
+    }
+
+    /**
+     * Buckets in {@code [from, to)} whose counters disagree with the movement table, including
+     * buckets missing on either side.
+     */
+    public List<RollupMismatch> diff(LocalDateTime from, LocalDateTime to) {
+        MovementFilter window = new MovementFilter(null, null, from, to);
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Map<BucketKey, long[]> expected = readBuckets(GROUPED_MOVEMENTS
+                + MovementMetricsRepository.where(window, params, "movement_date") + GROUP_BY_BUCKET, params);
+        params = new MapSqlParameterSource();
+        Map<BucketKey, long[]> actual = readBuckets("SELECT store_id, product_id, movement_type, bucket_start, movement_count, quantity_sum"
+                + " FROM inventory_movement_rollups" + MovementMetricsRepository.where(window, params, "bucket_start"), params);
+
+        Set<BucketKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        long[] none = new long[2];
+        return keys.stream()
+                .sorted(KEY_ORDER)
+                .filter(key -> !Arrays.equals(expected.getOrDefault(key, none), actual.getOrDefault(key, none)))
+                .map(key -> {
+                    long[] e = expected.getOrDefault(key, none);
+                    long[] a = actual.getOrDefault(key, none);
+                    return new RollupMismatch(key.storeId(), key.productId(), key.movementType(), key.bucketStart(), e[0], a[0], e[1], a[1]);
+                })
+                .toList();
+    }
+
+    private Map<BucketKey, long[]> readBuckets(String sql, MapSqlParameterSource params) {
+        Map<BucketKey, long[]> buckets = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            BucketKey key = new BucketKey(rs.getLong("store_id"), rs.getLong("product_id"), rs.getString("movement_type"),
+                    rs.getTimestamp("bucket_start").toLocalDateTime());
+            buckets.put(key, new long[]{rs.getLong("movement_count"), rs.getLong("quantity_sum")});
+        });
+        return buckets;
+    }
+
+    private static Object[] incrementArgs(BucketKey key, long[] delta) {
+        return new Object[]{delta[0], delta[1], key.storeId(), key.productId(), key.movementType(), Timestamp.valueOf(key.bucketStart())};
+    }
+
+    private record BucketKey(Long storeId, Long productId, String movementType, LocalDateTime bucketStart) {
+    }
+}
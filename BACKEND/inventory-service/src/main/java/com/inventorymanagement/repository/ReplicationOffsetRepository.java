@@ -0,0 +1,9 @@
+package com.inventorymanagement.repository;
+
+import com.inventorymanagement.model.ReplicationOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReplicationOffsetRepository extends JpaRepository<ReplicationOffset, String> {
+}
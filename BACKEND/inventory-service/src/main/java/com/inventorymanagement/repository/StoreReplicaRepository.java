@@ -0,0 +1,16 @@
+package com.inventorymanagement.repository;
+
+import com.inventorymanagement.model.ReplicatedStore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoreReplicaRepository extends JpaRepository<ReplicatedStore, Long> {
+    @Query("select r.id from ReplicatedStore r where r.id in :ids and r.deleted = false")
+    List<Long> findLiveIds(@Param("ids") Collection<Long> ids);
+}
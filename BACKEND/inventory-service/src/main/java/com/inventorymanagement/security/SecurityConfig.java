@@ -1,7 +1,11 @@
 package com.inventorymanagement.security;
 
+import com.common.security.CachingJwtDecoder;
+import com.common.security.GatewayTrustedJwtDecoder;
+import com.common.security.JwtKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,15 +15,12 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.security.KeyFactory;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -31,46 +32,64 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // ✅ Public: metrics scraping
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").permitAll()
+
                         // ✅ EMPLOYEES & ADMINS can update stock
                         .requestMatchers(HttpMethod.PUT, "/inventory/**").hasAnyRole("ADMIN", "EMPLOYEE")
+                        .requestMatchers(HttpMethod.POST, "/inventory/movements/batch").hasAnyRole("ADMIN", "EMPLOYEE")
+                        .requestMatchers(HttpMethod.GET, "/inventory/changes", "/inventory/changes/ws").hasAnyRole("ADMIN", "EMPLOYEE")
 
                         // ✅ Only ADMINS can view inventory movements
                         .requestMatchers(HttpMethod.GET, "/inventory/movements").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/inventory/movements/page").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/inventory/movements/stream").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/inventory/movements/{storeId}").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/inventory/movements/metrics").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/inventory/movements/metrics/breakdown").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/inventory/movements/metrics/rollup/check").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/inventory/movements/metrics/rollup/backfill").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(bearerTokenResolver())
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
         return http.build();
     }
 
+    // ✅ EventSource and browser WebSockets cannot send headers, so only the change stream also takes ?access_token=
+    private static BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerOnly = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver headerOrQuery = new DefaultBearerTokenResolver();
+        headerOrQuery.setAllowUriQueryParameter(true);
+        return request -> request.getRequestURI().startsWith("/inventory/changes")
+                ? headerOrQuery.resolve(request)
+                : headerOnly.resolve(request);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(@Value("${security.jwt.public-keys:src/main/resources/public.pem}") List<String> publicKeys,
+                                 @Value("${security.jwt-cache.max-size:10000}") long cacheSize,
+                                 @Value("${security.jwt-cache.max-ttl:5m}") Duration cacheTtl,
+                                 @Value("${security.gateway-trust.secret:}") String gatewaySecret) {
         try {
-            RSAPublicKey publicKey = readPublicKey();
-            return NimbusJwtDecoder.withPublicKey(publicKey).build();
+            JwtDecoder decoder = JwtKeys.decoder(JwtKeys.publicKeys(publicKeys));
+            if (!gatewaySecret.isBlank()) {
+                decoder = new GatewayTrustedJwtDecoder(decoder, gatewaySecret);
+            }
+            return cacheSize > 0 ? new CachingJwtDecoder(decoder, cacheSize, cacheTtl) : decoder;
         } catch (Exception e) {
-            logger.error("Error loading RSA public key for JWT decoding", e);
-            throw new RuntimeException("Failed to load public key", e);
+            logger.error("Error loading public keys for JWT decoding", e);
+            throw new RuntimeException("Failed to load public keys", e);
         }
     }
 
-    private RSAPublicKey readPublicKey() throws Exception {
-        String key = new String(Files.readAllBytes(Paths.get("src/main/resources/public.pem")))
-                .replace("-----BEGIN PUBLIC KEY-----", "")
-                .replace("-----END PUBLIC KEY-----", "")
-                .replaceAll("\\s", "");
-        byte[] decodedKey = java.util.Base64.getDecoder().decode(key);
-        return (RSAPublicKey) KeyFactory.getInstance("RSA")
-                .generatePublic(new X509EncodedKeySpec(decodedKey));
-    }
-
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
@@ -0,0 +1,290 @@
+package com.inventorymanagement.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.model.BatchMovementResult;
+import com.inventorymanagement.model.BatchMovementResult.Row;
+import com.inventorymanagement.model.BatchMovementResult.Status;
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.StockMovementRequest;
+import com.inventorymanagement.monitoring.InventoryMetrics;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.repository.MovementBatchWriter;
+import com.inventorymanagement.repository.MovementRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a batch of stock movements in a single transaction. Stores and products are validated
+ * up front with one {@link ReferenceDataValidator} lookup for the whole batch, rows are grouped by
+ * {@code (storeId, productId)}, each inventory row is read and written once with the net
+ * change, and the movement log is written with JDBC batch inserts. In write-behind mode the rows
+ * go through {@link WriteBehindStockBuffer} instead, like single updates, so the buffer stays the
+ * only writer of the stock it holds.
+ */
+@Service
+public class BatchMovementService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchMovementService.class);
+    private static final String INSUFFICIENT_STOCK = "Insufficient stock";
+
+    private final InventoryRepository inventoryRepository;
+    private final MovementBatchWriter movementBatchWriter;
+    private final MovementRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxRows;
+    private final int maxAttempts;
+    private final InventoryMetrics inventoryMetrics;
+    private final InventoryChangeStream changeStream;
+    private final ReferenceDataValidator referenceDataValidator;
+    private final boolean validateReferences;
+    private final ObjectProvider<WriteBehindStockBuffer> writeBehindBuffer;
+
+    public BatchMovementService(InventoryRepository inventoryRepository, MovementBatchWriter movementBatchWriter,
+                                MovementRollupRepository rollupRepository,
+                                TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                @Value("${inventory.batch.max-rows:100000}") int maxRows,
+                                @Value("${inventory.batch.max-attempts:3}") int maxAttempts,
+                                InventoryMetrics inventoryMetrics, InventoryChangeStream changeStream,
+                                ReferenceDataValidator referenceDataValidator,
+                                @Value("${inventory.validation.mode:batch}") String validationMode,
+                                ObjectProvider<WriteBehindStockBuffer> writeBehindBuffer) {
+        this.inventoryRepository = inventoryRepository;
+        this.movementBatchWriter = movementBatchWriter;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+        this.maxAttempts = maxAttempts;
+        this.inventoryMetrics = inventoryMetrics;
+        this.changeStream = changeStream;
+        this.referenceDataValidator = referenceDataValidator;
+        this.validateReferences = !ReferenceDataValidator.MODE_OFF.equalsIgnoreCase(validationMode);
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+
+    /**
+     * Reads a JSON array of {@link StockMovementRequest} from the stream row by row and applies it.
+     */
+    public BatchMovementResult applyBatch(InputStream body) {
+        long start = System.nanoTime();
+        List<StockMovementRequest> rows = readRows(body);
+        // Outside the transaction: no connection is held while the owning services answer
+        ReferenceDataValidator.Missing missing = findMissingReferences(rows);
+
+        WriteBehindStockBuffer buffer = writeBehindBuffer.getIfAvailable();
+        Row[] results;
+        if (buffer != null) {
+            // The buffer counts the movements and rejections it handles
+            results = recordBuffered(rows, missing, buffer);
+        } else {
+            results = applyWithRetry(rows, missing);
+            // Counted once the batch committed; apply() may run several times on conflicts
+            recordMetrics(rows, results);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        int applied = (int) Arrays.stream(results).filter(row -> row.status() == Status.APPLIED).count();
+        double rowsPerSecond = rows.size() * 1_000_000_000.0 / elapsedNanos;
+        logger.info("Batch of {} movements processed in {} ms ({} rows/sec): {} applied, {} rejected",
+                rows.size(), elapsedNanos / 1_000_000, Math.round(rowsPerSecond), applied, rows.size() - applied);
+
+        return new BatchMovementResult(rows.size(), applied, rows.size() - applied, elapsedNanos / 1_000_000,
+                rowsPerSecond, Arrays.asList(results));
+    }
+
+    private List<StockMovementRequest> readRows(InputStream body) {
+        List<StockMovementRequest> rows = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of movements");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (rows.size() == maxRows) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + maxRows + " movements per batch");
+                }
+                rows.add(objectMapper.readValue(parser, StockMovementRequest.class));
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed movement batch: " + e.getMessage(), e);
+        }
+        return rows;
+    }
+
+    private ReferenceDataValidator.Missing findMissingReferences(List<StockMovementRequest> rows) {
+        if (!validateReferences) {
+            return new ReferenceDataValidator.Missing(Set.of(), Set.of());
+        }
+        List<StockMovementRequest> valid = rows.stream().filter(row -> validate(row) == null).toList();
+        return referenceDataValidator.findMissing(
+                valid.stream().map(StockMovementRequest::storeId).collect(Collectors.toSet()),
+                valid.stream().map(StockMovementRequest::productId).collect(Collectors.toSet()),
+                ReferenceDataValidator.currentToken());
+    }
+
+    private Row[] recordBuffered(List<StockMovementRequest> rows, ReferenceDataValidator.Missing missing,
+                                 WriteBehindStockBuffer buffer) {
+        Row[] results = new Row[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            StockMovementRequest row = rows.get(i);
+            String error = rejectionReason(row, missing);
+            if (error != null) {
+                results[i] = new Row(i, Status.REJECTED, error);
+                continue;
+            }
+            try {
+                buffer.record(row.storeId(), row.productId(), row.quantity(), row.userId(), row.movementType().toUpperCase());
+                results[i] = new Row(i, Status.APPLIED, null);
+            } catch (ResponseStatusException e) {
+                results[i] = new Row(i, Status.REJECTED, e.getReason());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The batch path updates {@link Inventory} entities, so concurrent single updates on the same
+     * rows surface as optimistic locking failures; the whole batch is then re-read and re-applied.
+     */
+    private Row[] applyWithRetry(List<StockMovementRequest> rows, ReferenceDataValidator.Missing missing) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> apply(rows, missing));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == maxAttempts) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Inventory changed concurrently, retry the batch", e);
+                }
+                logger.warn("Concurrent inventory update during batch (attempt {}/{}), retrying", attempt, maxAttempts);
+            }
+        }
+    }
+
+    private Row[] apply(List<StockMovementRequest> rows, ReferenceDataValidator.Missing missing) {
+        Row[] results = new Row[rows.size()];
+        Map<InventoryKey, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            StockMovementRequest row = rows.get(i);
+            String error = rejectionReason(row, missing);
+            if (error != null) {
+                results[i] = new Row(i, Status.REJECTED, error);
+            } else {
+                groups.computeIfAbsent(new InventoryKey(row.storeId(), row.productId()), key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<InventoryKey, Inventory> inventories = loadInventories(groups.keySet());
+        List<InventoryMovement> movements = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        groups.forEach((key, indexes) -> {
+            Inventory inventory = inventories.get(key);
+            if (inventory == null) {
+                indexes.forEach(i -> results[i] = new Row(i, Status.REJECTED, "Inventory item not found"));
+                return;
+            }
+
+            int quantity = inventory.getQuantity();
+            for (int i : indexes) {
+                StockMovementRequest row = rows.get(i);
+                boolean entry = "ENTRY".equalsIgnoreCase(row.movementType());
+                if (!entry && quantity < row.quantity()) {
+                    results[i] = new Row(i, Status.REJECTED, INSUFFICIENT_STOCK);
+                    continue;
+                }
+                quantity += entry ? row.quantity() : -row.quantity();
+                results[i] = new Row(i, Status.APPLIED, null);
+                movements.add(toMovement(row, now));
+            }
+            // ✅ Net change only: one UPDATE per (store, product) flushed at commit
+            inventory.setQuantity(quantity);
+        });
+
+        movementBatchWriter.insertAll(movements);
+        rollupRepository.add(movements);
+        // Only the attempt that commits reaches subscribers
+        changeStream.publishAfterCommit(movements);
+        return results;
+    }
+
+    private Map<InventoryKey, Inventory> loadInventories(Set<InventoryKey> keys) {
+        Map<Long, Set<Long>> productsByStore = keys.stream()
+                .collect(Collectors.groupingBy(InventoryKey::storeId, Collectors.mapping(InventoryKey::productId, Collectors.toSet())));
+
+        return productsByStore.entrySet().stream()
+                .flatMap(entry -> inventoryRepository.findByStoreIdAndProductIdIn(entry.getKey(), entry.getValue()).stream())
+                .collect(Collectors.toMap(inventory -> new InventoryKey(inventory.getStoreId(), inventory.getProductId()),
+                        Function.identity()));
+    }
+
+    private void recordMetrics(List<StockMovementRequest> rows, Row[] results) {
+        Map<String, Long> appliedByType = new LinkedHashMap<>();
+        for (Row result : results) {
+            if (result.status() == Status.APPLIED) {
+                appliedByType.merge(rows.get(result.index()).movementType().toUpperCase(), 1L, Long::sum);
+            } else if (INSUFFICIENT_STOCK.equals(result.message())) {
+                inventoryMetrics.insufficientStock("batch");
+            }
+        }
+        appliedByType.forEach((type, count) -> inventoryMetrics.movementsRecorded("batch", type, count));
+    }
+
+    private InventoryMovement toMovement(StockMovementRequest row, LocalDateTime movementDate) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.setStoreId(row.storeId());
+        movement.setProductId(row.productId());
+        movement.setUserId(row.userId());
+        movement.setQuantity(row.quantity());
+        movement.setMovementType(row.movementType().toUpperCase());
+        movement.setMovementDate(movementDate);
+        return movement;
+    }
+
+    private String rejectionReason(StockMovementRequest row, ReferenceDataValidator.Missing missing) {
+        String error = validate(row);
+        if (error == null && missing.storeIds().contains(row.storeId())) {
+            return "Store not found";
+        }
+        if (error == null && missing.productIds().contains(row.productId())) {
+            return "Product not found";
+        }
+        return error;
+    }
+
+    private String validate(StockMovementRequest row) {
+        if (row.storeId() == null || row.productId() == null || row.userId() == null) {
+            return "storeId, productId and userId are required";
+        }
+        if (row.quantity() <= 0) {
+            return "Quantity must be positive";
+        }
+        if (!"ENTRY".equalsIgnoreCase(row.movementType()) && !"EXIT".equalsIgnoreCase(row.movementType())) {
+            return "movementType must be ENTRY or EXIT";
+        }
+        return null;
+    }
+
+    private record InventoryKey(Long storeId, Long productId) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.InventoryChange;
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * In-process fan-out of applied stock movements. The write paths hand over their movements inside
+ * the transaction and they are emitted only once it commits, so subscribers never see a change
+ * that was rolled back.
+ * <p>
+ * Every subscriber has its own buffer of {@code inventory.changes.buffer-size} events. A client
+ * that falls further behind gets an overflow error instead of slowing down the writers, and
+ * reconnects with the last movement id it saw. With {@code afterId} a subscription first replays
+ * the committed movements after that id from the database, then continues with the live events
+ * received meanwhile, skipping the ones already replayed.
+ */
+@Component
+public class InventoryChangeStream {
+    public static final String SUBSCRIBERS = "inventory.changes.subscribers";
+    public static final String OVERFLOWS = "inventory.changes.overflows";
+
+    // ✅ Best effort: a subscriber without demand never blocks the others; demand comes from its own buffer
+    private final Sinks.Many<InventoryChange> sink = Sinks.many().multicast().directBestEffort();
+    private final InventoryMovementRepository movementRepository;
+    private final int bufferSize;
+    private final int replayPageSize;
+    private final Counter overflows;
+
+    public InventoryChangeStream(InventoryMovementRepository movementRepository, MeterRegistry registry,
+                                 @Value("${inventory.changes.buffer-size:256}") int bufferSize,
+                                 @Value("${inventory.changes.replay-page-size:500}") int replayPageSize) {
+        this.movementRepository = movementRepository;
+        this.bufferSize = bufferSize;
+        this.replayPageSize = replayPageSize;
+        Gauge.builder(SUBSCRIBERS, sink, Sinks.Many::currentSubscriberCount)
+                .description("Open inventory change stream subscriptions")
+                .register(registry);
+        this.overflows = Counter.builder(OVERFLOWS)
+                .description("Change stream subscriptions cut off because their buffer was full")
+                .register(registry);
+    }
+
+    /**
+     * Emits the movements after the current transaction commits, or right away outside of one.
+     * The movements must already carry their generated ids.
+     */
+    public void publishAfterCommit(List<InventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        List<InventoryChange> changes = movements.stream().map(InventoryChange::of).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emit(changes);
+                }
+            });
+        } else {
+            emit(changes);
+        }
+    }
+
+    // Sinks reject concurrent emitters, and commits happen on many request threads
+    private synchronized void emit(List<InventoryChange> changes) {
+        for (InventoryChange change : changes) {
+            sink.tryEmitNext(change);
+        }
+    }
+
+    /**
+     * Changes for one store and/or product ({@code null} matches all), starting after
+     * {@code afterId} when given, otherwise with the next live change. Terminates with an overflow
+     * error (see {@link reactor.core.Exceptions#isOverflow}) when the subscriber falls behind.
+     */
+    public Flux<InventoryChange> changes(Long storeId, Long productId, Long afterId) {
+        Flux<InventoryChange> live = sink.asFlux()
+                .filter(change -> change.matches(storeId, productId))
+                .onBackpressureBuffer(bufferSize, dropped -> overflows.increment());
+        if (afterId == null) {
+            return live;
+        }
+
+        return Flux.defer(() -> {
+            long[] lastReplayed = {afterId};
+            Flux<Sequenced> replay = replayPage(afterId, storeId, productId)
+                    .expand(page -> page.size() < replayPageSize
+                            ? Mono.empty()
+                            : replayPage(page.get(page.size() - 1).movementId(), storeId, productId))
+                    .flatMapIterable(page -> page)
+                    .map(change -> new Sequenced(change, true));
+
+            // ✅ Live events are subscribed to before the replay query runs and held back until it is done
+            return Flux.mergeSequential(replay, live.map(change -> new Sequenced(change, false)))
+                    .filter(sequenced -> {
+                        if (sequenced.replayed()) {
+                            lastReplayed[0] = sequenced.change().movementId();
+                            return true;
+                        }
+                        return sequenced.change().movementId() > lastReplayed[0];
+                    })
+                    .map(Sequenced::change);
+        });
+    }
+
+    private Mono<List<InventoryChange>> replayPage(Long afterId, Long storeId, Long productId) {
+        return Mono.fromCallable(() -> movementRepository.findChangesAfter(afterId, storeId, productId, Limit.of(replayPageSize))
+                        .stream()
+                        .map(InventoryChange::of)
+                        .toList())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private record Sequenced(InventoryChange change, boolean replayed) {
+    }
+}
@@ -1,19 +1,71 @@
 package com.inventorymanagement.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.MetricsGrouping;
+import com.inventorymanagement.model.MovementCursor;
+import com.inventorymanagement.model.MovementFilter;
+import com.inventorymanagement.model.MovementMetric;
+import com.inventorymanagement.model.MovementPage;
 import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.MovementMetricsRepository;
+import com.inventorymanagement.repository.MovementRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class InventoryMovementService {
     private final InventoryMovementRepository movementRepository;
+    private final MovementMetricsRepository metricsRepository;
+    private final MovementRollupRepository rollupRepository;
+    private final boolean metricsFromRollup;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final int maxPageSize;
+    private final int streamFetchSize;
 
-    public InventoryMovementService(InventoryMovementRepository movementRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InventoryMovementService(InventoryMovementRepository movementRepository,
+                                    MovementMetricsRepository metricsRepository,
+                                    MovementRollupRepository rollupRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${inventory.movements.max-page-size:500}") int maxPageSize,
+                                    @Value("${inventory.movements.stream-fetch-size:500}") int streamFetchSize,
+                                    @Value("${inventory.metrics.source:rollup}") String metricsSource) {
         this.movementRepository = movementRepository;
+        this.metricsRepository = metricsRepository;
+        this.rollupRepository = rollupRepository;
+        this.metricsFromRollup = "rollup".equalsIgnoreCase(metricsSource);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // The servlet response buffers; flushing after every row would defeat that
+        this.lineWriter = objectMapper.writerFor(InventoryMovement.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxPageSize = maxPageSize;
+        this.streamFetchSize = streamFetchSize;
     }
 
     public List<InventoryMovement> getAllMovements() {
@@ -24,9 +76,81 @@ public class InventoryMovementService {
         return movementRepository.findByStoreId(storeId);
     }
 
+    /**
+     * Keyset page of movements, newest first. {@code after} is the {@code nextCursor} of the
+     * previous page, so deep pages cost the same as the first one.
+     */
+    public MovementPage getMovementPage(MovementFilter filter, String after, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + maxPageSize);
+        }
+        MovementCursor cursor = after == null || after.isBlank() ? null : decodeCursor(after);
+
+        // One extra row tells whether there is a next page without a count query
+        List<InventoryMovement> rows = movementRepository.findPage(filter, cursor, size + 1);
+        if (rows.size() <= size) {
+            return new MovementPage(rows, null);
+        }
+        List<InventoryMovement> items = rows.subList(0, size);
+        return new MovementPage(List.copyOf(items), MovementCursor.of(items.get(size - 1)).encode());
+    }
+
+    /**
+     * Writes every matching movement as newline-delimited JSON, newest first. Rows come from a
+     * database cursor and are detached once written, so memory use does not grow with the result.
+     */
+    public void streamMovements(MovementFilter filter, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<InventoryMovement> movements = movementRepository.streamAll(filter, streamFetchSize);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                movements.forEach(movement -> {
+                    writeLine(generator, movement);
+                    entityManager.detach(movement);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not stream inventory movements", e);
+            }
+        });
+    }
+
     public Map<String, Long> getMovementMetrics() {
-        List<InventoryMovement> movements = movementRepository.findAll();
-        return movements.stream()
-                .collect(Collectors.groupingBy(InventoryMovement::getMovementType, Collectors.counting()));
+        if (metricsFromRollup) {
+            return rollupRepository.countByMovementType();
+        }
+        return movementRepository.countByMovementType().stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+    }
+
+    /**
+     * Movement counts and quantity sums per movement type and {@code grouping} bucket.
+     */
+    public List<MovementMetric> getMovementBreakdown(MetricsGrouping grouping, MovementFilter filter) {
+        // Rollups only answer hour-aligned ranges; anything finer goes to the movement table
+        if (metricsFromRollup && isWholeHour(filter.from()) && isWholeHour(filter.to())) {
+            return rollupRepository.breakdown(grouping, filter);
+        }
+        return metricsRepository.breakdown(grouping, filter);
+    }
+
+    private void writeLine(JsonGenerator generator, InventoryMovement movement) {
+        try {
+            lineWriter.writeValue(generator, movement);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isWholeHour(LocalDateTime value) {
+        return value == null || value.equals(value.truncatedTo(ChronoUnit.HOURS));
+    }
+
+    private MovementCursor decodeCursor(String after) {
+        try {
+            return MovementCursor.decode(after);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
     }
-}
\ No newline at end of file
+}
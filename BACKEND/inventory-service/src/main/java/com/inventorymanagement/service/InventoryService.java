@@ -1,16 +1,25 @@
 package com.inventorymanagement.service;
 
+import com.common.logging.HotPathSamplingFilter;
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.resilience.DownstreamResilience;
 import com.inventorymanagement.model.Inventory;
 import com.inventorymanagement.model.InventoryMovement;
 import com.inventorymanagement.model.Product;
 import com.inventorymanagement.model.Store;
+import com.inventorymanagement.monitoring.InventoryMetrics;
 import com.inventorymanagement.repository.InventoryMovementRepository;
 import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.repository.MovementRollupRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -20,19 +29,59 @@ import java.util.List;
 public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final InventoryMovementRepository movementRepository;
+    private final MovementRollupRepository rollupRepository;
     private final WebClient webClientStore;
     private final WebClient webClientProduct;
+    private final ReferenceDataValidator referenceDataValidator;
+    private final String validationMode;
+    private final ObjectProvider<WriteBehindStockBuffer> writeBehindBuffer;
+    private final InventoryMetrics inventoryMetrics;
+    private final InventoryChangeStream changeStream;
+    private final TransactionTemplate transactionTemplate;
     private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
 
-    public InventoryService(InventoryRepository inventoryRepository, InventoryMovementRepository movementRepository, WebClient.Builder webClientBuilder) {
+    public InventoryService(InventoryRepository inventoryRepository, InventoryMovementRepository movementRepository,
+                            MovementRollupRepository rollupRepository, WebClient.Builder webClientBuilder,
+                            ReferenceDataValidator referenceDataValidator,
+                            @Value("${inventory.validation.mode:batch}") String validationMode,
+                            @Value("${services.auth-service.url:http://localhost:8080}") String authServiceUrl,
+                            @Value("${services.product-service.url:http://localhost:8082}") String productServiceUrl,
+                            ObjectProvider<WriteBehindStockBuffer> writeBehindBuffer,
+                            InventoryMetrics inventoryMetrics, DownstreamCallMetrics downstreamMetrics,
+                            DownstreamResilience resilience, InventoryChangeStream changeStream,
+                            TransactionTemplate transactionTemplate) {
         this.inventoryRepository = inventoryRepository;
         this.movementRepository = movementRepository;
-        this.webClientStore = webClientBuilder.baseUrl("http://localhost:8080").build();
-        this.webClientProduct = webClientBuilder.baseUrl("http://localhost:8082").build();
+        this.rollupRepository = rollupRepository;
+        this.webClientStore = webClientBuilder.clone().baseUrl(authServiceUrl)
+                .clientConnector(resilience.connector())
+                .filter(resilience.forTarget("store-service"))
+                .filter(downstreamMetrics.forTarget("store-service")).build();
+        this.webClientProduct = webClientBuilder.clone().baseUrl(productServiceUrl)
+                .clientConnector(resilience.connector())
+                .filter(resilience.forTarget("product-service"))
+                .filter(downstreamMetrics.forTarget("product-service")).build();
+        this.referenceDataValidator = referenceDataValidator;
+        this.validationMode = validationMode;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.inventoryMetrics = inventoryMetrics;
+        this.changeStream = changeStream;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Timed("inventory.reference.validation")
     public void validateStoreAndProduct(Long storeId, Long productId, String token) {
-        logger.info("Validating store ID {} and product ID {} with token: {}", storeId, productId, token);
+        logger.debug("Validating store ID {} and product ID {}", storeId, productId);
+
+        if (ReferenceDataValidator.MODE_OFF.equalsIgnoreCase(validationMode)) {
+            return;
+        }
+        if ("batch".equalsIgnoreCase(validationMode)) {
+            // ✅ Both lookups run concurrently and share in-flight calls for the same IDs
+            referenceDataValidator.validate(List.of(storeId), List.of(productId), token);
+            logger.debug("Store {} and Product {} validated successfully.", storeId, productId);
+            return;
+        }
 
         Store store = webClientStore.get()
                 .uri("/stores/{storeId}", storeId)
@@ -50,24 +99,48 @@ public class InventoryService {
                 .blockOptional()
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
 
-        logger.info("Store and Product validated successfully. Store: {}, Product: {}", store.getName(), product.getName());
+        logger.debug("Store and Product validated successfully. Store: {}, Product: {}", store.getName(), product.getName());
     }
 
+    /**
+     * Validates the store and product with the caller's token, then applies the movement in its own
+     * transaction so no database connection is held while the owners are asked.
+     */
+    @Timed("inventory.stock.update")
     public Inventory updateStock(Long storeId, Long productId, int quantity, Long userId, String movementType) {
-        Inventory inventory = inventoryRepository.findByStoreIdAndProductId(storeId, productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory item not found"));
+        // ✅ Checked before anything is written: the conditional UPDATEs treat every non-ENTRY type as an exit
+        if (quantity <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
+        }
+        if (!"ENTRY".equalsIgnoreCase(movementType) && !"EXIT".equalsIgnoreCase(movementType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "movementType must be ENTRY or EXIT");
+        }
+        String type = movementType.toUpperCase();
+        validateStoreAndProduct(storeId, productId, ReferenceDataValidator.currentToken());
+        return transactionTemplate.execute(status -> applyStockUpdate(storeId, productId, quantity, userId, type));
+    }
 
-        if ("EXIT".equalsIgnoreCase(movementType) && inventory.getQuantity() < quantity) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
+    private Inventory applyStockUpdate(Long storeId, Long productId, int quantity, Long userId, String movementType) {
+        WriteBehindStockBuffer buffer = writeBehindBuffer.getIfAvailable();
+        if (buffer != null) {
+            // ✅ Write-behind mode: journaled now, applied to the database on the next flush
+            return buffer.record(storeId, productId, quantity, userId, movementType);
         }
 
-        if ("ENTRY".equalsIgnoreCase(movementType)) {
-            inventory.setQuantity(inventory.getQuantity() + quantity);
-        } else {
-            inventory.setQuantity(inventory.getQuantity() - quantity);
+        int updated = "ENTRY".equals(movementType)
+                ? inventoryRepository.increment(storeId, productId, quantity)
+                : inventoryRepository.decrementIfAvailable(storeId, productId, quantity);
+
+        if (updated == 0) {
+            if (!inventoryRepository.existsByStoreIdAndProductId(storeId, productId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory item not found");
+            }
+            inventoryMetrics.insufficientStock("direct");
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
         }
 
-        inventoryRepository.save(inventory);
+        Inventory inventory = inventoryRepository.findByStoreIdAndProductId(storeId, productId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory item not found"));
 
         InventoryMovement movement = new InventoryMovement();
         movement.setStoreId(storeId);
@@ -77,7 +150,12 @@ public class InventoryService {
         movement.setMovementType(movementType);
 
         movementRepository.save(movement);
-        logger.info("Inventory movement recorded: Store={}, Product={}, Type={}, Quantity={}", storeId, productId, movementType, quantity);
+        // ✅ Metrics rollup counters commit together with the movement
+        rollupRepository.add(List.of(movement));
+        changeStream.publishAfterCommit(List.of(movement));
+        inventoryMetrics.movementRecorded("direct", movementType);
+        logger.info(HotPathSamplingFilter.HOT_PATH, "Inventory movement recorded: Store={}, Product={}, Type={}, Quantity={}",
+                storeId, productId, movementType, quantity);
 
         return inventory;
     }
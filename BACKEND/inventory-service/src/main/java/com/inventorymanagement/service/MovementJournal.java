@@ -0,0 +1,164 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.InventoryMovement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of accepted write-behind movements. Entries go to the current segment
+ * file before the caller is acknowledged; {@link #rotate()} closes the segment so it can be
+ * applied to the database and then deleted. Segments left on disk after a crash are replayed
+ * at startup.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.write-behind.enabled", havingValue = "true")
+public class MovementJournal {
+    private static final Logger logger = LoggerFactory.getLogger(MovementJournal.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    // A lock rather than synchronized: fsync under a monitor would pin virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel current;
+    private Path currentPath;
+    private long sequence;
+
+    public MovementJournal(@Value("${inventory.write-behind.journal-dir:data/journal}") String directory,
+                           @Value("${inventory.write-behind.fsync:true}") boolean fsync) throws IOException {
+        this.directory = Path.of(directory);
+        this.fsync = fsync;
+        Files.createDirectories(this.directory);
+        openSegment();
+    }
+
+    public void append(InventoryMovement movement) {
+        lock.lock();
+        try {
+            String line = movement.getStoreId() + "," + movement.getProductId() + "," + movement.getUserId() + ","
+                    + movement.getQuantity() + "," + movement.getMovementType() + ","
+                    + movement.getMovementDate().toInstant(ZoneOffset.UTC).toEpochMilli() + "\n";
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    current.write(buffer);
+                }
+                if (fsync) {
+                    current.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to movement journal " + currentPath, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     */
+    public void rotate() {
+        lock.lock();
+        try {
+            try {
+                current.close();
+                openSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not rotate movement journal", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closed segments in the order they were written, excluding the one currently appended to.
+     */
+    public List<Path> closedSegments() {
+        lock.lock();
+        try {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                        .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .filter(path -> !path.equals(currentPath))
+                        .sorted()
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list movement journal segments", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<InventoryMovement> read(Path segment) {
+        try {
+            String content = Files.readString(segment, StandardCharsets.UTF_8);
+            // A crash can leave a torn last line; only newline-terminated entries were acknowledged
+            int end = content.lastIndexOf('\n');
+            if (end < 0) {
+                return List.of();
+            }
+            return content.substring(0, end).lines()
+                    .map(line -> line.split(","))
+                    .map(MovementJournal::toMovement)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read movement journal segment " + segment, e);
+        }
+    }
+
+    public void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            logger.warn("Could not delete applied journal segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            current.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        // Time-based names stay unique across restarts, which the checkpoint table relies on
+        String name = String.format("%s%013d-%06d%s", SEGMENT_PREFIX, System.currentTimeMillis(), sequence++, SEGMENT_SUFFIX);
+        currentPath = directory.resolve(name);
+        current = FileChannel.open(currentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static InventoryMovement toMovement(String[] fields) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.setStoreId(Long.parseLong(fields[0]));
+        movement.setProductId(Long.parseLong(fields[1]));
+        movement.setUserId(Long.parseLong(fields[2]));
+        movement.setQuantity(Integer.parseInt(fields[3]));
+        movement.setMovementType(fields[4]);
+        movement.setMovementDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(fields[5])), ZoneOffset.UTC));
+        return movement;
+    }
+}
@@ -0,0 +1,225 @@
+package com.inventorymanagement.service;
+
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.resilience.DownstreamResilience;
+import com.inventorymanagement.model.ReferenceEvent;
+import com.inventorymanagement.model.ReferenceFeed;
+import com.inventorymanagement.model.ReplicatedProduct;
+import com.inventorymanagement.model.ReplicatedReference;
+import com.inventorymanagement.model.ReplicatedStore;
+import com.inventorymanagement.model.ReplicationOffset;
+import com.inventorymanagement.repository.ProductReplicaRepository;
+import com.inventorymanagement.repository.ReplicationOffsetRepository;
+import com.inventorymanagement.repository.StoreReplicaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Local replicas of the stores (auth-service) and products (product-service) that stock movements
+ * refer to, so validating them is an indexed lookup instead of a call to each service.
+ * <p>
+ * Both services write every change to a transactional outbox in the same transaction as the change
+ * and serve it as an ordered feed ({@code GET /stores/events}, {@code GET /products/events}). This
+ * poller applies new events together with the feed offset in one transaction, so a crash never
+ * loses or double-applies one; each row remembers the event it reflects and ignores older ones.
+ * The replica lags the owners by about one poll interval; ids it does not know (yet) are still
+ * checked remotely by {@link ReferenceDataValidator}.
+ */
+@Service
+public class ReferenceDataReplica {
+    public static final String EVENTS_APPLIED = "inventory.replication.events";
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataReplica.class);
+
+    private final StoreReplicaRepository storeReplicaRepository;
+    private final ProductReplicaRepository productReplicaRepository;
+    private final ReplicationOffsetRepository offsetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+    private final Duration timeout;
+    private final Feed<ReplicatedStore> stores;
+    private final Feed<ReplicatedProduct> products;
+
+    public ReferenceDataReplica(StoreReplicaRepository storeReplicaRepository,
+                                ProductReplicaRepository productReplicaRepository,
+                                ReplicationOffsetRepository offsetRepository,
+                                PlatformTransactionManager transactionManager,
+                                WebClient.Builder webClientBuilder,
+                                @Value("${services.auth-service.url:http://localhost:8080}") String authServiceUrl,
+                                @Value("${services.product-service.url:http://localhost:8082}") String productServiceUrl,
+                                @Value("${inventory.replication.key:}") String replicationKey,
+                                @Value("${inventory.replication.page-size:500}") int pageSize,
+                                @Value("${inventory.replication.timeout:5s}") Duration timeout,
+                                DownstreamCallMetrics downstreamMetrics, DownstreamResilience resilience,
+                                MeterRegistry meterRegistry) {
+        this.storeReplicaRepository = storeReplicaRepository;
+        this.productReplicaRepository = productReplicaRepository;
+        this.offsetRepository = offsetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = !replicationKey.isEmpty();
+        this.pageSize = pageSize;
+        this.timeout = timeout;
+        this.stores = new Feed<>("stores", "/stores/events", storeReplicaRepository, ReplicatedStore::new,
+                webClientBuilder.clone().baseUrl(authServiceUrl)
+                        .defaultHeader("X-Replication-Key", replicationKey)
+                        .clientConnector(resilience.connector())
+                        .filter(resilience.forTarget("store-service"))
+                        .filter(downstreamMetrics.forTarget("store-service")).build(),
+                meterRegistry);
+        this.products = new Feed<>("products", "/products/events", productReplicaRepository, ReplicatedProduct::new,
+                webClientBuilder.clone().baseUrl(productServiceUrl)
+                        .defaultHeader("X-Replication-Key", replicationKey)
+                        .clientConnector(resilience.connector())
+                        .filter(resilience.forTarget("product-service"))
+                        .filter(downstreamMetrics.forTarget("product-service")).build(),
+                meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Store ids that are not live in the replica; all of them while replication is disabled.
+     */
+    public Set<Long> unknownStoreIds(Collection<Long> ids) {
+        return unknown(ids, storeReplicaRepository::findLiveIds);
+    }
+
+    /**
+     * Product ids that are not live in the replica; all of them while replication is disabled.
+     */
+    public Set<Long> unknownProductIds(Collection<Long> ids) {
+        return unknown(ids, productReplicaRepository::findLiveIds);
+    }
+
+    private Set<Long> unknown(Collection<Long> ids, Function<Collection<Long>, List<Long>> findLiveIds) {
+        Set<Long> unknown = new LinkedHashSet<>(ids);
+        if (enabled && !unknown.isEmpty()) {
+            findLiveIds.apply(unknown).forEach(unknown::remove);
+        }
+        return unknown;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.replication.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        stores.sync();
+        products.sync();
+    }
+
+    /**
+     * Applies one page of events and stores the feed offset in the same transaction.
+     *
+     * @return number of events applied, not counting ones the replica already reflected
+     */
+    <T extends ReplicatedReference> int apply(String source, JpaRepository<T, Long> repository, LongFunction<T> factory,
+                                              List<ReferenceEvent> events, long nextAfter) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, T> rows = repository.findAllById(events.stream().map(ReferenceEvent::aggregateId).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(ReplicatedReference::getId, Function.identity()));
+            Map<Long, T> changed = new LinkedHashMap<>();
+            for (ReferenceEvent event : events) {
+                T row = rows.computeIfAbsent(event.aggregateId(), factory::apply);
+                // ✅ Served again within the settle window, or superseded by a later event already applied
+                if (event.id() <= row.getLastEventId()) {
+                    continue;
+                }
+                if (ReferenceEvent.DELETED.equals(event.eventType())) {
+                    row.setDeleted(true);
+                } else {
+                    row.copyFrom(event.payload());
+                    row.setDeleted(false);
+                }
+                row.setLastEventId(event.id());
+                changed.put(row.getId(), row);
+            }
+            repository.saveAll(changed.values());
+            offsetRepository.save(new ReplicationOffset(source, nextAfter));
+            return changed.size();
+        });
+    }
+
+    private final class Feed<T extends ReplicatedReference> {
+        private final String source;
+        private final String path;
+        private final JpaRepository<T, Long> repository;
+        private final LongFunction<T> factory;
+        private final WebClient client;
+        private final Counter applied;
+        private volatile boolean failing;
+
+        Feed(String source, String path, JpaRepository<T, Long> repository, LongFunction<T> factory,
+             WebClient client, MeterRegistry meterRegistry) {
+            this.source = source;
+            this.path = path;
+            this.repository = repository;
+            this.factory = factory;
+            this.client = client;
+            this.applied = Counter.builder(EVENTS_APPLIED)
+                    .description("Reference data changes applied to the local replica")
+                    .tag("source", source)
+                    .register(meterRegistry);
+        }
+
+        void sync() {
+            long after = offsetRepository.findById(source).map(ReplicationOffset::getLastEventId).orElse(0L);
+            while (true) {
+                ReferenceFeed feed;
+                try {
+                    long from = after;
+                    feed = client.get()
+                            .uri(uri -> uri.path(path).queryParam("after", from).queryParam("limit", pageSize).build())
+                            .retrieve()
+                            .bodyToMono(ReferenceFeed.class)
+                            .block(timeout);
+                } catch (RuntimeException e) {
+                    // Logged once per outage; validation falls back to remote lookups meanwhile
+                    if (!failing) {
+                        logger.warn("Replication of {} paused: {}", source, e.getMessage());
+                        failing = true;
+                    }
+                    return;
+                }
+                if (failing) {
+                    logger.info("Replication of {} resumed from event {}.", source, after);
+                    failing = false;
+                }
+
+                int count = apply(source, repository, factory, feed.events(), feed.nextAfter());
+                applied.increment(count);
+                if (count > 0) {
+                    logger.debug("Applied {} {} event(s), offset now {}.", count, source, feed.nextAfter());
+                }
+                // A full page whose offset moved means there is more to read right away
+                if (feed.events().size() < pageSize || feed.nextAfter() <= after) {
+                    return;
+                }
+                after = feed.nextAfter();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.inventorymanagement.service;
+
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.resilience.DownstreamResilience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Validates store and product IDs against the local {@link ReferenceDataReplica} first and only
+ * asks the bulk {@code POST /stores/exists} and {@code POST /products/exists} endpoints about IDs
+ * the replica does not know. Both lookups run concurrently, and IDs that are already being looked
+ * up by another request share that in-flight call instead of issuing a new one.
+ */
+@Component
+public class ReferenceDataValidator {
+    /**
+     * {@code inventory.validation.mode} that skips store and product checks, e.g. in tests.
+     */
+    public static final String MODE_OFF = "off";
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataValidator.class);
+    private static final ParameterizedTypeReference<List<Long>> ID_LIST = new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClientStore;
+    private final WebClient webClientProduct;
+    private final ReferenceDataReplica replica;
+    private final ConcurrentMap<Long, Mono<Boolean>> inFlightStores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Mono<Boolean>> inFlightProducts = new ConcurrentHashMap<>();
+
+    public ReferenceDataValidator(WebClient.Builder webClientBuilder,
+                                  @Value("${services.auth-service.url:http://localhost:8080}") String authServiceUrl,
+                                  @Value("${services.product-service.url:http://localhost:8082}") String productServiceUrl,
+                                  DownstreamCallMetrics downstreamMetrics, DownstreamResilience resilience,
+                                  ReferenceDataReplica replica) {
+        this.webClientStore = webClientBuilder.clone().baseUrl(authServiceUrl)
+                .clientConnector(resilience.connector())
+                .filter(resilience.forTarget("store-service"))
+                .filter(downstreamMetrics.forTarget("store-service")).build();
+        this.webClientProduct = webClientBuilder.clone().baseUrl(productServiceUrl)
+                .clientConnector(resilience.connector())
+                .filter(resilience.forTarget("product-service"))
+                .filter(downstreamMetrics.forTarget("product-service")).build();
+        this.replica = replica;
+    }
+
+    /**
+     * Throws {@code 404} naming the first missing store or product, if any.
+     */
+    public void validate(Collection<Long> storeIds, Collection<Long> productIds, String token) {
+        Missing missing = findMissing(storeIds, productIds, token);
+
+        if (!missing.storeIds().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Store not found: " + missing.storeIds().iterator().next());
+        }
+        if (!missing.productIds().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found: " + missing.productIds().iterator().next());
+        }
+    }
+
+    /**
+     * The stores and products that do not exist, with at most one call per owning service. Errors
+     * with {@code 502} (or {@code 503} from the resilience layer) when an owner cannot answer, and
+     * with the owner's {@code 401} or {@code 403} when it rejected the caller's token.
+     */
+    public Missing findMissing(Collection<Long> storeIds, Collection<Long> productIds, String token) {
+        // ✅ Replicated IDs are settled locally; usually nothing is left for the network
+        Set<Long> unknownStores = replica.unknownStoreIds(storeIds);
+        Set<Long> unknownProducts = replica.unknownProductIds(productIds);
+        if (unknownStores.isEmpty() && unknownProducts.isEmpty()) {
+            return new Missing(Set.of(), Set.of());
+        }
+
+        Tuple2<Set<Long>, Set<Long>> missing = Mono.zip(
+                        findMissing(webClientStore, "/stores/exists", "store-service", unknownStores, inFlightStores, token),
+                        findMissing(webClientProduct, "/products/exists", "product-service", unknownProducts, inFlightProducts, token))
+                .block();
+
+        if (!missing.getT1().isEmpty()) {
+            logger.warn("Stores not found: {}", missing.getT1());
+        }
+        if (!missing.getT2().isEmpty()) {
+            logger.warn("Products not found: {}", missing.getT2());
+        }
+        return new Missing(missing.getT1(), missing.getT2());
+    }
+
+    /**
+     * The bearer token of the current request, passed on to the owning services; {@code null}
+     * outside a request.
+     */
+    public static String currentToken() {
+        if (SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken authentication) {
+            return authentication.getToken().getTokenValue();
+        }
+        return null;
+    }
+
+    private Mono<Set<Long>> findMissing(WebClient client, String path, String target, Collection<Long> ids,
+                                        ConcurrentMap<Long, Mono<Boolean>> inFlight, String token) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+
+        Map<Long, Mono<Boolean>> lookups = new LinkedHashMap<>();
+        List<Long> toFetch = new ArrayList<>();
+        for (Long id : distinct) {
+            Mono<Boolean> pending = inFlight.get(id);
+            if (pending != null) {
+                lookups.put(id, pending);
+            } else {
+                toFetch.add(id);
+            }
+        }
+
+        Map<Long, Mono<Boolean>> registered = new ConcurrentHashMap<>();
+        if (!toFetch.isEmpty()) {
+            Mono<Set<Long>> batch = client.post()
+                    .uri(path)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .bodyValue(toFetch)
+                    .retrieve()
+                    .bodyToMono(ID_LIST)
+                    .<Set<Long>>map(HashSet::new)
+                    .onErrorMap(error -> !(error instanceof ResponseStatusException), error -> {
+                        // ✅ A token the owner rejected is the caller's problem, not an outage
+                        if (error instanceof WebClientResponseException response
+                                && (response.getStatusCode().value() == 401 || response.getStatusCode().value() == 403)) {
+                            logger.warn("{} rejected the caller's token: {}", target, response.getStatusCode());
+                            return new ResponseStatusException(response.getStatusCode(), target + " rejected the request", error);
+                        }
+                        logger.error("Error contacting {}: {}", target, error.getMessage());
+                        return new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Error contacting " + target, error);
+                    })
+                    // Before the result reaches anyone: a caller unblocked by it must not find it in flight
+                    .doOnTerminate(() -> registered.forEach(inFlight::remove))
+                    .cache();
+
+            for (Long id : toFetch) {
+                Mono<Boolean> lookup = batch.map(found -> found.contains(id));
+                Mono<Boolean> existing = inFlight.putIfAbsent(id, lookup);
+                if (existing == null) {
+                    registered.put(id, lookup);
+                    lookups.put(id, lookup);
+                } else {
+                    lookups.put(id, existing);
+                }
+            }
+        }
+
+        return Flux.fromIterable(lookups.entrySet())
+                .flatMap(entry -> entry.getValue()
+                        .filter(exists -> !exists)
+                        .map(exists -> entry.getKey()))
+                .collect(Collectors.toSet())
+                // The batch never runs when the other owner's lookup fails first and zip cancels this
+                // one; its entries must not stay behind for later calls to share
+                .doOnCancel(() -> registered.forEach(inFlight::remove));
+    }
+
+    public record Missing(Set<Long> storeIds, Set<Long> productIds) {
+    }
+}
@@ -0,0 +1,348 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.JournalCheckpoint;
+import com.inventorymanagement.monitoring.InventoryMetrics;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.repository.JournalCheckpointRepository;
+import com.inventorymanagement.repository.MovementBatchWriter;
+import com.inventorymanagement.repository.MovementRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind mode for hot {@code (store, product)} pairs. Stock changes are absorbed
+ * by per-key accumulators guarded by striped locks, journaled to disk before they are
+ * acknowledged, and flushed to PostgreSQL as one net update per key on a short interval or once
+ * {@code inventory.write-behind.max-pending} changes are buffered.
+ *
+ * <p>While enabled, single updates and batches both go through the buffer, and EXITs are checked
+ * against the projected quantity (database value plus pending delta). Flushes use the same
+ * conditional UPDATEs as the direct path, so stock changed by another writer meanwhile never goes
+ * negative: a key whose net exit no longer fits is replayed movement by movement and the exits
+ * that do not fit are dropped and logged. Once every sealed segment is in the database the
+ * baselines are re-read and keys that saw no change since the previous flush are dropped; a key
+ * keeps its entry while a failed segment still waits to be retried.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.write-behind.enabled", havingValue = "true")
+public class WriteBehindStockBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindStockBuffer.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final MovementBatchWriter movementBatchWriter;
+    private final MovementRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MovementJournal journal;
+    private final InventoryMetrics inventoryMetrics;
+    private final InventoryChangeStream changeStream;
+    private final int maxPending;
+
+    private final ReentrantLock[] stripes;
+    private final Map<StockKey, PendingStock> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Executor flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WriteBehindStockBuffer(InventoryRepository inventoryRepository,
+                                  JournalCheckpointRepository checkpointRepository,
+                                  MovementBatchWriter movementBatchWriter,
+                                  MovementRollupRepository rollupRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  MovementJournal journal,
+                                  InventoryMetrics inventoryMetrics,
+                                  InventoryChangeStream changeStream,
+                                  @Value("${inventory.write-behind.stripes:64}") int stripeCount,
+                                  @Value("${inventory.write-behind.max-pending:1000}") int maxPending) {
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.movementBatchWriter = movementBatchWriter;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = journal;
+        this.inventoryMetrics = inventoryMetrics;
+        this.changeStream = changeStream;
+        this.maxPending = maxPending;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Replays journal segments that were not applied before the last shutdown or crash.
+     */
+    @PostConstruct
+    public void recover() {
+        List<Path> segments = journal.closedSegments();
+        if (!segments.isEmpty()) {
+            logger.warn("Replaying {} unflushed write-behind journal segment(s)", segments.size());
+            applyClosedSegments();
+        }
+    }
+
+    public Inventory record(Long storeId, Long productId, int quantity, Long userId, String movementType) {
+        StockKey key = new StockKey(storeId, productId);
+        boolean entry = "ENTRY".equalsIgnoreCase(movementType);
+        ReentrantLock lock = stripeFor(key);
+        Inventory projected;
+        int buffered;
+
+        lock.lock();
+        try {
+            PendingStock stock = pending.get(key);
+            if (stock == null) {
+                Inventory inventory = inventoryRepository.findByStoreIdAndProductId(storeId, productId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory item not found"));
+                stock = new PendingStock(inventory.getId(), inventory.getQuantity());
+                pending.put(key, stock);
+            }
+
+            if (!entry && stock.projected() < quantity) {
+                inventoryMetrics.insufficientStock("write-behind");
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient stock");
+            }
+
+            InventoryMovement movement = new InventoryMovement();
+            movement.setStoreId(storeId);
+            movement.setProductId(productId);
+            movement.setUserId(userId);
+            movement.setQuantity(quantity);
+            movement.setMovementType(movementType.toUpperCase());
+            movement.setMovementDate(LocalDateTime.now());
+            journal.append(movement);
+
+            stock.delta += entry ? quantity : -quantity;
+            stock.touched = true;
+            projected = stock.toInventory(storeId, productId);
+            buffered = pendingCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        inventoryMetrics.movementRecorded("write-behind", movementType);
+
+        if (buffered >= maxPending && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flush);
+        }
+        return projected;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            drain();
+            applyClosedSegments();
+            refreshBaselines();
+        } catch (RuntimeException e) {
+            // Segments stay on disk and are retried on the next flush
+            logger.error("Write-behind flush failed: {}", e.getMessage(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Seals the journal segment holding every buffered change and folds the pending deltas into
+     * the in-memory base quantities. The sealed segment is what gets written to the database.
+     */
+    private void drain() {
+        lockAll();
+        try {
+            if (pendingCount.get() > 0) {
+                journal.rotate();
+                pendingCount.set(0);
+            }
+            pending.values().forEach(stock -> {
+                stock.base += stock.delta;
+                stock.delta = 0;
+                stock.touched = false;
+            });
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Runs after every sealed segment was applied: the database now holds everything but the
+     * changes buffered since {@link #drain()}, so it becomes the new base. This also picks up
+     * changes made by other writers and exits dropped during the flush.
+     */
+    private void refreshBaselines() {
+        Set<Long> ids = pending.values().stream().map(stock -> stock.inventoryId).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> quantities = inventoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Inventory::getId, Inventory::getQuantity));
+
+        lockAll();
+        try {
+            pending.values().removeIf(stock -> !stock.touched
+                    || (ids.contains(stock.inventoryId) && !quantities.containsKey(stock.inventoryId)));
+            pending.values().forEach(stock -> stock.base = quantities.getOrDefault(stock.inventoryId, stock.base));
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void applyClosedSegments() {
+        for (Path segment : journal.closedSegments()) {
+            applySegment(segment);
+        }
+    }
+
+    private void applySegment(Path segment) {
+        String name = segment.getFileName().toString();
+        List<InventoryMovement> movements = journal.read(segment);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (checkpointRepository.existsById(name)) {
+                return;
+            }
+            Map<StockKey, List<InventoryMovement>> byKey = movements.stream()
+                    .collect(Collectors.groupingBy(movement -> new StockKey(movement.getStoreId(), movement.getProductId()),
+                            LinkedHashMap::new, Collectors.toList()));
+            Set<InventoryMovement> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+            byKey.forEach((key, keyMovements) -> {
+                if (!applyNetChange(key, keyMovements)) {
+                    dropped.addAll(applyOneByOne(key, keyMovements));
+                }
+            });
+            List<InventoryMovement> applied = movements.stream().filter(movement -> !dropped.contains(movement)).toList();
+
+            movementBatchWriter.insertAll(applied);
+            rollupRepository.add(applied);
+            checkpointRepository.save(new JournalCheckpoint(name));
+            // ✅ Subscribers see write-behind movements once they are in the database and have ids
+            changeStream.publishAfterCommit(applied);
+        });
+
+        journal.delete(segment);
+        logger.debug("Applied write-behind segment {} ({} movements)", name, movements.size());
+    }
+
+    /**
+     * One conditional UPDATE with the net change of a key; {@code false} when the row is gone or
+     * its stock no longer covers a net exit, in which case nothing was changed.
+     */
+    private boolean applyNetChange(StockKey key, List<InventoryMovement> movements) {
+        int delta = movements.stream().mapToInt(WriteBehindStockBuffer::signedQuantity).sum();
+        if (delta > 0) {
+            return inventoryRepository.increment(key.storeId(), key.productId(), delta) == 1;
+        }
+        if (delta < 0) {
+            return inventoryRepository.decrementIfAvailable(key.storeId(), key.productId(), -delta) == 1;
+        }
+        return true;
+    }
+
+    /**
+     * Replays a key's movements in journal order and returns the ones the database rejected. They
+     * were acknowledged from the buffer, so each one is logged for follow-up.
+     */
+    private List<InventoryMovement> applyOneByOne(StockKey key, List<InventoryMovement> movements) {
+        List<InventoryMovement> rejected = new ArrayList<>();
+        for (InventoryMovement movement : movements) {
+            int updated = "ENTRY".equals(movement.getMovementType())
+                    ? inventoryRepository.increment(key.storeId(), key.productId(), movement.getQuantity())
+                    : inventoryRepository.decrementIfAvailable(key.storeId(), key.productId(), movement.getQuantity());
+            if (updated == 0) {
+                rejected.add(movement);
+                inventoryMetrics.insufficientStock("write-behind-flush");
+                logger.warn("Dropped buffered {} of {} for store {}, product {} by user {}: stock changed by another writer",
+                        movement.getMovementType(), movement.getQuantity(), key.storeId(), key.productId(), movement.getUserId());
+            }
+        }
+        return rejected;
+    }
+
+    private static int signedQuantity(InventoryMovement movement) {
+        return "ENTRY".equals(movement.getMovementType()) ? movement.getQuantity() : -movement.getQuantity();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(StockKey key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private record StockKey(Long storeId, Long productId) {
+    }
+
+    private static final class PendingStock {
+        private final Long inventoryId;
+        private int base;
+        private int delta;
+        private boolean touched;
+
+        private PendingStock(Long inventoryId, int base) {
+            this.inventoryId = inventoryId;
+            this.base = base;
+        }
+
+        private int projected() {
+            return base + delta;
+        }
+
+        private Inventory toInventory(Long storeId, Long productId) {
+            Inventory inventory = new Inventory();
+            inventory.setId(inventoryId);
+            inventory.setStoreId(storeId);
+            inventory.setProductId(productId);
+            inventory.setQuantity(projected());
+            return inventory;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventorymanagement.monitoring;
+
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryMetricsTests {
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		registry.clear();
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(7L);
+		inventory.setProductId(7L);
+		inventory.setQuantity(5);
+		inventoryRepository.save(inventory);
+	}
+
+	@Test
+	void stockUpdatesCountMovementsByTypeAndRejections() {
+		inventoryService.updateStock(7L, 7L, 3, 1L, "ENTRY");
+		inventoryService.updateStock(7L, 7L, 2, 1L, "exit");
+		assertThrows(ResponseStatusException.class, () -> inventoryService.updateStock(7L, 7L, 100, 1L, "EXIT"));
+
+		assertEquals(1.0, registry.get(InventoryMetrics.MOVEMENTS).tags("path", "direct", "type", "ENTRY").counter().count());
+		assertEquals(1.0, registry.get(InventoryMetrics.MOVEMENTS).tags("path", "direct", "type", "EXIT").counter().count());
+		assertEquals(1.0, registry.get(InventoryMetrics.REJECTIONS).tags("reason", "insufficient_stock").counter().count());
+	}
+
+	@Test
+	void stockUpdatesAndTheirQueriesAreTimed() {
+		inventoryService.updateStock(7L, 7L, 1, 1L, "ENTRY");
+		assertThrows(ResponseStatusException.class, () -> inventoryService.updateStock(7L, 7L, 100, 1L, "EXIT"));
+
+		long updates = registry.get("inventory.stock.update").timers().stream().mapToLong(Timer::count).sum();
+		assertEquals(2, updates);
+		assertNotNull(registry.get("inventory.stock.update").tag("exception", "ResponseStatusException").timer());
+
+		Timer rollupAdd = registry.get("inventory.db.queries").tags("class", "com.inventorymanagement.repository.MovementRollupRepository", "method", "add").timer();
+		assertEquals(1, rollupAdd.count());
+		assertTrue(registry.get("spring.data.repository.invocations").tag("method", "decrementIfAvailable").timers().size() > 0);
+	}
+}
@@ -0,0 +1,68 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.BatchMovementResult;
+import com.inventorymanagement.model.BatchMovementResult.Status;
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchMovementServiceTests {
+
+	@Autowired
+	private BatchMovementService batchMovementService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(1L);
+		inventory.setProductId(10L);
+		inventory.setQuantity(5);
+		inventoryRepository.save(inventory);
+	}
+
+	@Test
+	void appliesNetDeltaAndRejectsRowsPerRow() {
+		String body = """
+				[
+				  {"storeId": 1, "productId": 10, "quantity": 3, "userId": 7, "movementType": "EXIT"},
+				  {"storeId": 1, "productId": 10, "quantity": 4, "userId": 7, "movementType": "EXIT"},
+				  {"storeId": 1, "productId": 10, "quantity": 10, "userId": 7, "movementType": "ENTRY"},
+				  {"storeId": 1, "productId": 99, "quantity": 1, "userId": 7, "movementType": "ENTRY"},
+				  {"storeId": 1, "productId": 10, "quantity": 0, "userId": 7, "movementType": "ENTRY"}
+				]
+				""";
+
+		BatchMovementResult result = batchMovementService.applyBatch(
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(5, result.received());
+		assertEquals(2, result.applied());
+		assertEquals(Status.APPLIED, result.results().get(0).status());
+		assertEquals("Insufficient stock", result.results().get(1).message());
+		assertEquals(Status.APPLIED, result.results().get(2).status());
+		assertEquals("Inventory item not found", result.results().get(3).message());
+		assertEquals(Status.REJECTED, result.results().get(4).status());
+		assertEquals(12, inventoryRepository.findByStoreIdAndProductId(1L, 10L).orElseThrow().getQuantity());
+		assertEquals(2, movementRepository.count());
+	}
+}
@@ -0,0 +1,147 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.model.InventoryChange;
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryChangeStreamTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	@Autowired
+	private InventoryChangeStream changeStream;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private BatchMovementService batchMovementService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		inventoryRepository.save(inventory(1L, 10L, 5));
+		inventoryRepository.save(inventory(2L, 10L, 5));
+	}
+
+	@Test
+	void pushesCommittedUpdatesMatchingTheFilter() {
+		StepVerifier.create(changeStream.changes(1L, null, null))
+				.then(() -> {
+					inventoryService.updateStock(2L, 10L, 1, 7L, "EXIT");
+					assertThrows(ResponseStatusException.class, () -> inventoryService.updateStock(1L, 10L, 50, 7L, "EXIT"));
+					inventoryService.updateStock(1L, 10L, 3, 7L, "ENTRY");
+				})
+				.assertNext(change -> {
+					assertEquals(1L, change.storeId());
+					assertEquals("ENTRY", change.movementType());
+					assertEquals(3, change.quantity());
+					assertEquals(lastMovementId(), change.movementId());
+				})
+				.thenCancel()
+				.verify(TIMEOUT);
+	}
+
+	@Test
+	void resumesAfterAMovementIdWithoutGapsOrDuplicates() {
+		inventoryService.updateStock(1L, 10L, 1, 7L, "ENTRY");
+		long resumeFrom = lastMovementId();
+		inventoryService.updateStock(1L, 10L, 2, 7L, "ENTRY");
+		inventoryService.updateStock(1L, 10L, 3, 7L, "ENTRY");
+
+		StepVerifier.create(changeStream.changes(null, 10L, resumeFrom).map(InventoryChange::quantity))
+				.expectNext(2, 3)
+				.then(() -> inventoryService.updateStock(2L, 10L, 4, 7L, "ENTRY"))
+				.expectNext(4)
+				.thenCancel()
+				.verify(TIMEOUT);
+	}
+
+	@Test
+	void batchMovementsArriveWithTheirIds() {
+		String body = """
+				[
+				  {"storeId": 1, "productId": 10, "quantity": 2, "userId": 7, "movementType": "EXIT"},
+				  {"storeId": 2, "productId": 10, "quantity": 4, "userId": 7, "movementType": "ENTRY"}
+				]
+				""";
+
+		StepVerifier.create(changeStream.changes(null, null, null).map(InventoryChange::movementId))
+				.then(() -> batchMovementService.applyBatch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))))
+				.expectNextSequence(movementIds())
+				.thenCancel()
+				.verify(TIMEOUT);
+	}
+
+	@Test
+	void cutsOffASubscriberThatFallsBehind() {
+		InventoryChangeStream stream = new InventoryChangeStream(movementRepository, new SimpleMeterRegistry(), 2, 10);
+
+		StepVerifier.create(stream.changes(null, null, null), 0)
+				.then(() -> {
+					for (long id = 1; id <= 3; id++) {
+						stream.publishAfterCommit(List.of(movement(id)));
+					}
+				})
+				.thenRequest(10)
+				.expectNextCount(2)
+				.expectErrorMatches(Exceptions::isOverflow)
+				.verify(TIMEOUT);
+	}
+
+	private long lastMovementId() {
+		return movementIds().get(movementIds().size() - 1);
+	}
+
+	private List<Long> movementIds() {
+		return movementRepository.findAll(Sort.by("id")).stream().map(InventoryMovement::getId).toList();
+	}
+
+	private static Inventory inventory(Long storeId, Long productId, int quantity) {
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(storeId);
+		inventory.setProductId(productId);
+		inventory.setQuantity(quantity);
+		return inventory;
+	}
+
+	private static InventoryMovement movement(long id) {
+		InventoryMovement movement = new InventoryMovement();
+		movement.setId(id);
+		movement.setStoreId(1L);
+		movement.setProductId(10L);
+		movement.setUserId(7L);
+		movement.setQuantity(1);
+		movement.setMovementType("ENTRY");
+		return movement;
+	}
+}
@@ -0,0 +1,129 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.MetricsGrouping;
+import com.inventorymanagement.model.MovementFilter;
+import com.inventorymanagement.model.MovementMetric;
+import com.inventorymanagement.model.MovementPage;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.MovementBatchWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryMovementServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+	private static final MovementFilter ALL = new MovementFilter(null, null, null, null);
+
+	@Autowired
+	private InventoryMovementService movementService;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@Autowired
+	private MovementBatchWriter movementBatchWriter;
+
+	@Autowired
+	private MovementRollupService rollupService;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		List<InventoryMovement> movements = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			InventoryMovement movement = new InventoryMovement();
+			movement.setStoreId(1L);
+			movement.setProductId(i % 2 == 0 ? 10L : 20L);
+			movement.setUserId(7L);
+			movement.setQuantity(1);
+			movement.setMovementType("ENTRY");
+			// Pairs of rows share a timestamp so the id tie-breaker is exercised
+			movement.setMovementDate(START.plusMinutes(i / 2));
+			movements.add(movement);
+		}
+		movementBatchWriter.insertAll(movements);
+		rollupService.backfill(null, null);
+	}
+
+	@Test
+	void walksAllPagesNewestFirstWithoutGapsOrDuplicates() {
+		Set<Long> seen = new HashSet<>();
+		InventoryMovement previous = null;
+		String cursor = null;
+		int pages = 0;
+
+		do {
+			MovementPage page = movementService.getMovementPage(ALL, cursor, 10);
+			for (InventoryMovement movement : page.items()) {
+				assertTrue(seen.add(movement.getId()));
+				if (previous != null) {
+					int byDate = movement.getMovementDate().compareTo(previous.getMovementDate());
+					assertTrue(byDate < 0 || (byDate == 0 && movement.getId() < previous.getId()));
+				}
+				previous = movement;
+			}
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(25, seen.size());
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void appliesProductAndDateRangeFilters() {
+		MovementFilter filter = new MovementFilter(1L, 10L, START.plusMinutes(2), START.plusMinutes(5));
+
+		MovementPage page = movementService.getMovementPage(filter, null, 100);
+
+		// Product 10 has the even rows; minutes 2..4 hold rows 4, 6 and 8
+		assertEquals(3, page.items().size());
+		assertNull(page.nextCursor());
+		assertTrue(page.items().stream().allMatch(movement -> movement.getProductId() == 10L));
+	}
+
+	@Test
+	void streamsOneJsonObjectPerLine() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		movementService.streamMovements(new MovementFilter(null, 20L, null, null), out);
+
+		List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+		assertEquals(12, lines.size());
+		assertTrue(lines.stream().allMatch(line -> line.startsWith("{") && line.contains("\"productId\":20")));
+	}
+
+	@Test
+	void countsMovementTypesInTheDatabase() {
+		assertEquals(Map.of("ENTRY", 25L), movementService.getMovementMetrics());
+	}
+
+	@Test
+	void breaksDownByProductAndByHour() {
+		List<MovementMetric> byProduct = movementService.getMovementBreakdown(MetricsGrouping.PRODUCT, ALL);
+		assertEquals(List.of(new MovementMetric("10", "ENTRY", 13, 13), new MovementMetric("20", "ENTRY", 12, 12)), byProduct);
+
+		List<MovementMetric> byHour = movementService.getMovementBreakdown(MetricsGrouping.HOUR,
+				new MovementFilter(1L, null, START, null));
+		assertEquals(List.of(new MovementMetric(START.toString(), "ENTRY", 25, 25)), byHour);
+	}
+}
@@ -0,0 +1,137 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryServiceConcurrencyTests {
+
+	private static final int THREADS = 64;
+	private static final int EXITS_PER_THREAD = 25;
+	private static final int INITIAL_STOCK = 1000;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(1L);
+		inventory.setProductId(1L);
+		inventory.setQuantity(INITIAL_STOCK);
+		inventoryRepository.save(inventory);
+	}
+
+	@Test
+	void concurrentExitsOnOneSkuNeitherLoseUpdatesNorOversell() throws Exception {
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < EXITS_PER_THREAD; i++) {
+					try {
+						inventoryService.updateStock(1L, 1L, 1, 42L, "EXIT");
+						accepted.incrementAndGet();
+					} catch (ResponseStatusException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(INITIAL_STOCK, accepted.get());
+		assertEquals(THREADS * EXITS_PER_THREAD - INITIAL_STOCK, rejected.get());
+		assertEquals(0, inventoryRepository.findByStoreIdAndProductId(1L, 1L).orElseThrow().getQuantity());
+		assertEquals(INITIAL_STOCK, movementRepository.count());
+	}
+
+	@Test
+	void concurrentEntriesAndExitsKeepEveryUpdate() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			String type = t % 2 == 0 ? "ENTRY" : "EXIT";
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < EXITS_PER_THREAD; i++) {
+					inventoryService.updateStock(1L, 1L, 3, 42L, type);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(INITIAL_STOCK, inventoryRepository.findByStoreIdAndProductId(1L, 1L).orElseThrow().getQuantity());
+		assertEquals((long) THREADS * EXITS_PER_THREAD, movementRepository.count());
+	}
+
+	@Test
+	void rejectsNonPositiveQuantitiesBeforeTouchingStock() {
+		for (int quantity : new int[] {0, -5}) {
+			ResponseStatusException error = assertThrows(ResponseStatusException.class,
+					() -> inventoryService.updateStock(1L, 1L, quantity, 42L, "EXIT"));
+			assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+		}
+
+		assertEquals(INITIAL_STOCK, inventoryRepository.findByStoreIdAndProductId(1L, 1L).orElseThrow().getQuantity());
+		assertEquals(0, movementRepository.count());
+	}
+
+	@Test
+	void rejectsUnknownMovementTypesBeforeTouchingStock() {
+		for (String type : new String[] {"EXITT", "TRANSFER", ""}) {
+			ResponseStatusException error = assertThrows(ResponseStatusException.class,
+					() -> inventoryService.updateStock(1L, 1L, 5, 42L, type));
+			assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+		}
+		inventoryService.updateStock(1L, 1L, 5, 42L, "exit");
+
+		assertEquals(INITIAL_STOCK - 5, inventoryRepository.findByStoreIdAndProductId(1L, 1L).orElseThrow().getQuantity());
+		assertEquals("EXIT", movementRepository.findAll().get(0).getMovementType());
+	}
+}
@@ -0,0 +1,86 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.model.InventoryMovement;
+import com.inventorymanagement.model.RollupMismatch;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.repository.MovementBatchWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MovementRollupServiceTests {
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryMovementService movementService;
+
+	@Autowired
+	private MovementRollupService rollupService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@Autowired
+	private MovementBatchWriter movementBatchWriter;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		rollupService.backfill(null, null);
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(1L);
+		inventory.setProductId(10L);
+		inventory.setQuantity(10);
+		inventoryRepository.save(inventory);
+	}
+
+	@Test
+	void updateStockMaintainsRollupInTheSameTransaction() {
+		inventoryService.updateStock(1L, 10L, 5, 7L, "ENTRY");
+		inventoryService.updateStock(1L, 10L, 3, 7L, "EXIT");
+		inventoryService.updateStock(1L, 10L, 2, 7L, "EXIT");
+
+		assertEquals(Map.of("ENTRY", 1L, "EXIT", 2L), movementService.getMovementMetrics());
+		assertTrue(rollupService.check(null, null).isEmpty());
+	}
+
+	@Test
+	void checkFindsRowsWrittenBehindTheRollupAndRepairsThem() {
+		LocalDateTime hour = LocalDateTime.of(2024, 3, 1, 10, 0);
+		InventoryMovement movement = new InventoryMovement();
+		movement.setStoreId(1L);
+		movement.setProductId(10L);
+		movement.setUserId(7L);
+		movement.setQuantity(4);
+		movement.setMovementType("ENTRY");
+		movement.setMovementDate(hour.plusMinutes(15));
+		movementBatchWriter.insertAll(List.of(movement));
+
+		List<RollupMismatch> expected = List.of(new RollupMismatch(1L, 10L, "ENTRY", hour, 1, 0, 4, 0));
+		// Checking alone changes nothing
+		assertEquals(expected, rollupService.check(hour.minusDays(1), hour.plusDays(1)));
+		assertEquals(expected, rollupService.check(hour.minusDays(1), hour.plusDays(1)));
+
+		assertEquals(expected, rollupService.repair(hour.minusDays(1), hour.plusDays(1)));
+		assertTrue(rollupService.check(null, null).isEmpty());
+	}
+}
@@ -0,0 +1,140 @@
+package com.inventorymanagement.service;
+
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.resilience.DownstreamResilience;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.model.ReferenceEvent;
+import com.inventorymanagement.model.ReplicatedProduct;
+import com.inventorymanagement.model.ReplicatedStore;
+import com.inventorymanagement.repository.ProductReplicaRepository;
+import com.inventorymanagement.repository.ReplicationOffsetRepository;
+import com.inventorymanagement.repository.StoreReplicaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceDataReplicaTests {
+
+	// Nothing listens here: any remote lookup fails with 502
+	private static final String UNREACHABLE = "http://localhost:1";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Autowired
+	private StoreReplicaRepository storeReplicaRepository;
+
+	@Autowired
+	private ProductReplicaRepository productReplicaRepository;
+
+	@Autowired
+	private ReplicationOffsetRepository offsetRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DownstreamResilience resilience;
+
+	private ReferenceDataReplica replica;
+
+	@BeforeEach
+	void setUp() {
+		storeReplicaRepository.deleteAll();
+		productReplicaRepository.deleteAll();
+		offsetRepository.deleteAll();
+		replica = replica("test-key");
+	}
+
+	@Test
+	void appliesUpsertsAndDeletesWithTheOffset() throws Exception {
+		replica.apply("stores", storeReplicaRepository, ReplicatedStore::new, List.of(
+				upsert(1, 10L, "{\"id\":10,\"name\":\"Downtown\",\"address\":\"Main St 1\"}"),
+				upsert(2, 11L, "{\"id\":11,\"name\":\"Airport\",\"address\":\"Terminal 2\"}"),
+				deleted(3, 11L)), 3);
+
+		ReplicatedStore store = storeReplicaRepository.findById(10L).orElseThrow();
+		assertEquals("Downtown", store.getName());
+		assertEquals(1, store.getLastEventId());
+		assertTrue(storeReplicaRepository.findById(11L).orElseThrow().isDeleted());
+		assertEquals(3, offsetRepository.findById("stores").orElseThrow().getLastEventId());
+		assertEquals(Set.of(11L, 12L), replica.unknownStoreIds(List.of(10L, 11L, 12L)));
+	}
+
+	@Test
+	void ignoresEventsOlderThanWhatWasApplied() throws Exception {
+		replica.apply("products", productReplicaRepository, ReplicatedProduct::new, List.of(
+				upsert(5, 20L, "{\"id\":20,\"name\":\"Lamp\",\"price\":19.90,\"category\":\"Home\",\"storeId\":10}")), 0);
+		// Served again within the owner's settle window, followed by an older event for the same product
+		int applied = replica.apply("products", productReplicaRepository, ReplicatedProduct::new, List.of(
+				upsert(4, 20L, "{\"id\":20,\"name\":\"Old lamp\",\"price\":9.90,\"category\":\"Home\",\"storeId\":10}"),
+				upsert(5, 20L, "{\"id\":20,\"name\":\"Lamp\",\"price\":19.90,\"category\":\"Home\",\"storeId\":10}")), 5);
+
+		assertEquals(0, applied);
+		ReplicatedProduct product = productReplicaRepository.findById(20L).orElseThrow();
+		assertEquals("Lamp", product.getName());
+		assertEquals(new BigDecimal("19.90"), product.getPrice());
+		assertEquals(10L, product.getStoreId());
+	}
+
+	@Test
+	void validatesReplicatedIdsWithoutCallingTheOwners() throws Exception {
+		replica.apply("stores", storeReplicaRepository, ReplicatedStore::new, List.of(
+				upsert(1, 10L, "{\"id\":10,\"name\":\"Downtown\",\"address\":\"Main St 1\"}")), 1);
+		replica.apply("products", productReplicaRepository, ReplicatedProduct::new, List.of(
+				upsert(1, 20L, "{\"id\":20,\"name\":\"Lamp\",\"price\":19.90,\"category\":\"Home\",\"storeId\":10}")), 1);
+		ReferenceDataValidator validator = new ReferenceDataValidator(WebClient.builder(), UNREACHABLE, UNREACHABLE,
+				new DownstreamCallMetrics(new SimpleMeterRegistry()), resilience, replica);
+
+		validator.validate(List.of(10L), List.of(20L), "token");
+
+		// Unknown ids still go to the owning service
+		ResponseStatusException error = assertThrows(ResponseStatusException.class,
+				() -> validator.validate(List.of(10L), List.of(21L), "token"));
+		assertEquals(HttpStatus.BAD_GATEWAY, error.getStatusCode());
+	}
+
+	@Test
+	void everyIdIsUnknownWhileReplicationIsDisabled() throws Exception {
+		replica.apply("stores", storeReplicaRepository, ReplicatedStore::new, List.of(
+				upsert(1, 10L, "{\"id\":10,\"name\":\"Downtown\",\"address\":\"Main St 1\"}")), 1);
+
+		ReferenceDataReplica disabled = replica("");
+
+		assertFalse(disabled.isEnabled());
+		assertEquals(Set.of(10L), disabled.unknownStoreIds(List.of(10L)));
+	}
+
+	private ReferenceDataReplica replica(String key) {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		return new ReferenceDataReplica(storeReplicaRepository, productReplicaRepository, offsetRepository,
+				transactionManager, WebClient.builder(), UNREACHABLE, UNREACHABLE, key, 500, Duration.ofSeconds(1),
+				new DownstreamCallMetrics(registry), resilience, registry);
+	}
+
+	private ReferenceEvent upsert(long id, Long aggregateId, String payload) throws Exception {
+		return new ReferenceEvent(id, aggregateId, ReferenceEvent.UPSERTED, objectMapper.readTree(payload));
+	}
+
+	private static ReferenceEvent deleted(long id, Long aggregateId) {
+		return new ReferenceEvent(id, aggregateId, ReferenceEvent.DELETED, null);
+	}
+}
@@ -0,0 +1,179 @@
+package com.inventorymanagement.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.model.BatchMovementResult;
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Stock updates and batches with validation on, against a stand-in for auth-service and
+ * product-service that knows store 1 and product 10.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceValidationTests {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final AtomicInteger existsCalls = new AtomicInteger();
+	private static final HttpServer owners = startOwners();
+
+	@DynamicPropertySource
+	static void validation(DynamicPropertyRegistry registry) {
+		String url = "http://localhost:" + owners.getAddress().getPort();
+		registry.add("inventory.validation.mode", () -> "batch");
+		registry.add("services.auth-service.url", () -> url);
+		registry.add("services.product-service.url", () -> url);
+	}
+
+	@AfterAll
+	static void stopOwners() {
+		owners.stop(0);
+	}
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private BatchMovementService batchMovementService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@BeforeEach
+	void setUp() {
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		inventoryRepository.save(inventory(1L, 10L));
+		inventoryRepository.save(inventory(1L, 11L));
+		inventoryRepository.save(inventory(2L, 10L));
+		existsCalls.set(0);
+	}
+
+	@Test
+	void updateStockRejectsUnknownStoresAndProducts() {
+		inventoryService.updateStock(1L, 10L, 1, 7L, "ENTRY");
+
+		ResponseStatusException store = assertThrows(ResponseStatusException.class,
+				() -> inventoryService.updateStock(2L, 10L, 1, 7L, "ENTRY"));
+		ResponseStatusException product = assertThrows(ResponseStatusException.class,
+				() -> inventoryService.updateStock(1L, 11L, 1, 7L, "ENTRY"));
+
+		assertEquals(HttpStatus.NOT_FOUND, store.getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, product.getStatusCode());
+		assertEquals(6, inventoryRepository.findByStoreIdAndProductId(1L, 10L).orElseThrow().getQuantity());
+		assertEquals(1, movementRepository.count());
+	}
+
+	@Test
+	void batchRejectsRowsWithUnknownReferencesAfterOneLookupPerOwner() {
+		String body = """
+				[
+				  {"storeId": 1, "productId": 10, "quantity": 2, "userId": 7, "movementType": "ENTRY"},
+				  {"storeId": 2, "productId": 10, "quantity": 2, "userId": 7, "movementType": "ENTRY"},
+				  {"storeId": 1, "productId": 11, "quantity": 2, "userId": 7, "movementType": "ENTRY"},
+				  {"storeId": 1, "productId": 10, "quantity": 1, "userId": 7, "movementType": "EXIT"}
+				]
+				""";
+
+		BatchMovementResult result = batchMovementService.applyBatch(
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, result.applied());
+		assertEquals("Store not found", result.results().get(1).message());
+		assertEquals("Product not found", result.results().get(2).message());
+		assertEquals(6, inventoryRepository.findByStoreIdAndProductId(1L, 10L).orElseThrow().getQuantity());
+		assertEquals(5, inventoryRepository.findByStoreIdAndProductId(2L, 10L).orElseThrow().getQuantity());
+		assertEquals(2, existsCalls.get());
+	}
+
+	@Test
+	void rejectedTokensKeepTheirStatusAndOwnerFailuresAreABadGateway() {
+		assertEquals(HttpStatus.UNAUTHORIZED, updateStockAs("expired-token").getStatusCode());
+		assertEquals(HttpStatus.FORBIDDEN, updateStockAs("foreign-token").getStatusCode());
+		assertEquals(HttpStatus.BAD_GATEWAY, updateStockAs("failing-token").getStatusCode());
+		assertEquals(5, inventoryRepository.findByStoreIdAndProductId(2L, 10L).orElseThrow().getQuantity());
+	}
+
+	// Store 2 is unknown to the replica, so the check goes to the stand-in auth-service
+	private ResponseStatusException updateStockAs(String token) {
+		Jwt jwt = Jwt.withTokenValue(token).header("alg", "RS256").subject("7").build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+		try {
+			return assertThrows(ResponseStatusException.class, () -> inventoryService.updateStock(2L, 10L, 1, 7L, "ENTRY"));
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private static HttpServer startOwners() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/stores/exists", exchange -> answerExisting(exchange, Set.of(1L)));
+			server.createContext("/products/exists", exchange -> answerExisting(exchange, Set.of(10L)));
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void answerExisting(HttpExchange exchange, Set<Long> known) throws IOException {
+		existsCalls.incrementAndGet();
+		int rejection = switch (String.valueOf(exchange.getRequestHeaders().getFirst("Authorization"))) {
+			case "Bearer expired-token" -> 401;
+			case "Bearer foreign-token" -> 403;
+			case "Bearer failing-token" -> 500;
+			default -> 0;
+		};
+		if (rejection != 0) {
+			exchange.sendResponseHeaders(rejection, -1);
+			exchange.close();
+			return;
+		}
+		List<Long> ids = MAPPER.readValue(exchange.getRequestBody(), new TypeReference<List<Long>>() {});
+		byte[] response = MAPPER.writeValueAsBytes(ids.stream().filter(known::contains).toList());
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, response.length);
+		exchange.getResponseBody().write(response);
+		exchange.close();
+	}
+
+	private static Inventory inventory(Long storeId, Long productId) {
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(storeId);
+		inventory.setProductId(productId);
+		inventory.setQuantity(5);
+		return inventory;
+	}
+}
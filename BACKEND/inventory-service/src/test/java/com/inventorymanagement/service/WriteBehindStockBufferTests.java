@@ -0,0 +1,173 @@
+package com.inventorymanagement.service;
+
+import com.inventorymanagement.model.BatchMovementResult;
+import com.inventorymanagement.model.Inventory;
+import com.inventorymanagement.repository.InventoryMovementRepository;
+import com.inventorymanagement.repository.InventoryRepository;
+import com.inventorymanagement.repository.JournalCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"inventory.write-behind.enabled=true",
+		"inventory.write-behind.journal-dir=target/test-journal",
+		"inventory.write-behind.fsync=false",
+		"inventory.write-behind.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class WriteBehindStockBufferTests {
+
+	private static final Path JOURNAL_DIR = Path.of("target/test-journal");
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private WriteBehindStockBuffer buffer;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryMovementRepository movementRepository;
+
+	@Autowired
+	private JournalCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private BatchMovementService batchMovementService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		buffer.flush();
+		movementRepository.deleteAll();
+		inventoryRepository.deleteAll();
+		Inventory inventory = new Inventory();
+		inventory.setStoreId(1L);
+		inventory.setProductId(1L);
+		inventory.setQuantity(10);
+		inventoryRepository.save(inventory);
+	}
+
+	@Test
+	void buffersDeltasUntilFlushAndRefusesNegativeStock() {
+		inventoryService.updateStock(1L, 1L, 4, 7L, "EXIT");
+		Inventory projected = inventoryService.updateStock(1L, 1L, 5, 7L, "EXIT");
+		assertEquals(1, projected.getQuantity());
+		assertThrows(ResponseStatusException.class, () -> inventoryService.updateStock(1L, 1L, 2, 7L, "EXIT"));
+
+		assertEquals(10, currentQuantity());
+		assertEquals(0, movementRepository.count());
+
+		buffer.flush();
+
+		assertEquals(1, currentQuantity());
+		assertEquals(2, movementRepository.count());
+	}
+
+	@Test
+	void replaysUnflushedSegmentsExactlyOnce() throws Exception {
+		Path segment = JOURNAL_DIR.resolve("segment-0000000000001-000000.journal");
+		Files.writeString(segment, "1,1,7,3,EXIT,1700000000000\n1,1,7,5,ENTRY,1700000001000\n1,1,7,9,EX");
+
+		buffer.recover();
+
+		assertEquals(12, currentQuantity());
+		assertEquals(2, movementRepository.count());
+		assertTrue(checkpointRepository.existsById(segment.getFileName().toString()));
+		assertTrue(Files.notExists(segment));
+
+		// A crash after commit but before deletion leaves the file behind; the checkpoint skips it
+		Files.writeString(segment, "1,1,7,3,EXIT,1700000000000\n");
+		buffer.recover();
+		assertEquals(12, currentQuantity());
+	}
+
+	@Test
+	void stockTakenByAnotherWriterIsNeverOversoldOnFlush() {
+		inventoryService.updateStock(1L, 1L, 6, 7L, "EXIT");
+		// Another writer takes stock the buffer does not know about
+		jdbcTemplate.update("update inventory set quantity = quantity - 7 where store_id = 1 and product_id = 1");
+
+		buffer.flush();
+
+		assertEquals(3, currentQuantity());
+		assertEquals(0, movementRepository.count());
+
+		// The flush re-read the database, so the buffer now projects from 3
+		inventoryService.updateStock(1L, 1L, 3, 7L, "EXIT");
+		assertThrows(ResponseStatusException.class, () -> inventoryService.updateStock(1L, 1L, 1, 7L, "EXIT"));
+		buffer.flush();
+		assertEquals(0, currentQuantity());
+		assertEquals(1, movementRepository.count());
+	}
+
+	@Test
+	void failedFlushKeepsTheBufferedBaselineUntilItsSegmentIsApplied() {
+		inventoryService.updateStock(1L, 1L, 4, 7L, "EXIT");
+
+		jdbcTemplate.execute("alter table inventory_movements rename to inventory_movements_offline");
+		try {
+			buffer.flush();
+			buffer.flush();
+			assertEquals(10, currentQuantity());
+
+			// The unapplied exit still counts: only 6 are left to take
+			ResponseStatusException error = assertThrows(ResponseStatusException.class,
+					() -> inventoryService.updateStock(1L, 1L, 10, 7L, "EXIT"));
+			assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+		} finally {
+			jdbcTemplate.execute("alter table inventory_movements_offline rename to inventory_movements");
+		}
+
+		buffer.flush();
+
+		assertEquals(6, currentQuantity());
+		assertEquals(1, movementRepository.count());
+	}
+
+	@Test
+	void batchesGoThroughTheBuffer() {
+		inventoryService.updateStock(1L, 1L, 8, 7L, "EXIT");
+		String body = """
+				[
+				  {"storeId": 1, "productId": 1, "quantity": 3, "userId": 7, "movementType": "EXIT"},
+				  {"storeId": 1, "productId": 1, "quantity": 2, "userId": 7, "movementType": "exit"}
+				]
+				""";
+
+		BatchMovementResult result = batchMovementService.applyBatch(
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(1, result.applied());
+		assertEquals("Insufficient stock", result.results().get(0).message());
+		assertEquals(10, currentQuantity());
+
+		buffer.flush();
+
+		assertEquals(0, currentQuantity());
+		assertEquals(2, movementRepository.count());
+	}
+
+	private int currentQuantity() {
+		return inventoryRepository.findByStoreIdAndProductId(1L, 1L).orElseThrow().getQuantity();
+	}
+}
@@ -0,0 +1,75 @@
+package com.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the whole mesh locally, seeds it, drives a login / product create / stock movement mix
+ * through api-gateway and reports throughput, p50/p99/p99.9 latency and error rate per route.
+ * The report is printed and written to {@code target/load-report.json}.
+ */
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        Path workDir = Path.of("target").toAbsolutePath();
+
+        List<RouteStats.Summary> summaries;
+        try (ServiceMesh mesh = new ServiceMesh(settings, workDir)) {
+            mesh.start();
+            Workload workload = new Workload(settings, mesh);
+            workload.seed();
+            System.out.printf("Running %d users: %ds warmup, %ds measured, mix %s%n", settings.users(),
+                    settings.warmup().toSeconds(), settings.duration().toSeconds(), settings.mix());
+            summaries = workload.run();
+        }
+
+        print(summaries);
+        Path report = workDir.resolve("load-report.json");
+        write(report, settings, summaries);
+        System.out.println("Report written to " + report);
+    }
+
+    private static void print(List<RouteStats.Summary> summaries) {
+        System.out.printf("%n%-38s %9s %8s %8s %9s %9s %9s %9s%n",
+                "route", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (RouteStats.Summary summary : summaries) {
+            System.out.printf("%-38s %9d %8.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                    summary.route(), summary.requests(), summary.throughput(), summary.errorRate() * 100,
+                    summary.p50Millis(), summary.p99Millis(), summary.p999Millis(), summary.maxMillis());
+        }
+        System.out.println();
+    }
+
+    private static void write(Path report, LoadSettings settings, List<RouteStats.Summary> summaries) throws Exception {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timestamp", Instant.now().toString());
+        json.put("users", settings.users());
+        json.put("warmupSeconds", settings.warmup().toSeconds());
+        json.put("durationSeconds", settings.duration().toSeconds());
+        json.put("mix", settings.mix());
+        json.put("routes", summaries.stream().map(summary -> {
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("route", summary.route());
+            route.put("requests", summary.requests());
+            route.put("errors", summary.errors());
+            route.put("errorRate", summary.errorRate());
+            route.put("throughput", summary.throughput());
+            route.put("p50Millis", summary.p50Millis());
+            route.put("p99Millis", summary.p99Millis());
+            route.put("p999Millis", summary.p999Millis());
+            route.put("maxMillis", summary.maxMillis());
+            return route;
+        }).toList());
+
+        Files.createDirectories(report.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), json);
+    }
+}
@@ -0,0 +1,47 @@
+package com.loadtests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code load.*} system properties.
+ */
+record LoadSettings(Path backendDir,
+                    int users,
+                    Duration warmup,
+                    Duration duration,
+                    Map<String, Integer> mix,
+                    int stores,
+                    int products,
+                    Duration startupTimeout,
+                    String serviceHeap,
+                    String traceEndpoint) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Path.of(System.getProperty("load.backend-dir", "..")).toAbsolutePath().normalize(),
+                Integer.getInteger("load.users", 50),
+                Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 15)),
+                Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 60)),
+                parseMix(System.getProperty("load.mix", "login=10,product=30,movement=60")),
+                Integer.getInteger("load.stores", 5),
+                Integer.getInteger("load.products", 200),
+                Duration.ofSeconds(Integer.getInteger("load.startup-timeout-seconds", 240)),
+                System.getProperty("load.service-heap", "384m"),
+                System.getProperty("load.trace-endpoint", ""));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            if (entry.length != 2 || !Workload.OPERATIONS.contains(entry[0])) {
+                throw new IllegalArgumentException("load.mix entries must be one of " + Workload.OPERATIONS + "=<weight>: " + part);
+            }
+            weights.put(entry[0], Integer.parseInt(entry[1]));
+        }
+        return weights;
+    }
+}
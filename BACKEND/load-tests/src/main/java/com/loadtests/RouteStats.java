@@ -0,0 +1,57 @@
+package com.loadtests;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of one route during the measurement window.
+ */
+final class RouteStats {
+    private final String route;
+    private final Queue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final LongAdder errors = new LongAdder();
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        latenciesNanos.add(latencyNanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Summary summarize(double measuredSeconds) {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Summary(route, sorted.length, errors.sum(), sorted.length / measuredSeconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    static Summary combine(String route, double measuredSeconds, RouteStats... stats) {
+        RouteStats all = new RouteStats(route);
+        for (RouteStats routeStats : stats) {
+            all.latenciesNanos.addAll(routeStats.latenciesNanos);
+            all.errors.add(routeStats.errors.sum());
+        }
+        return all.summarize(measuredSeconds);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    record Summary(String route, long requests, long errors, double throughput,
+                   double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : errors / (double) requests;
+        }
+    }
+}
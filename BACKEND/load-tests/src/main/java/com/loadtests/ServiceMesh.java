@@ -0,0 +1,143 @@
+package com.loadtests;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Boots Eureka, the three services and api-gateway as child JVMs on their usual ports, with each
+ * service's PostgreSQL database replaced by a file-backed H2 database in PostgreSQL mode.
+ * <p>
+ * The services do not register with Eureka, so the gateway resolves its {@code lb://} routes
+ * through static Spring Cloud discovery instances; the gateway itself still registers with Eureka.
+ */
+final class ServiceMesh implements AutoCloseable {
+    static final String GATEWAY = "http://localhost:9000";
+
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final LoadSettings settings;
+    private final Path dataDir;
+    private final Path logDir;
+    private final List<ServiceProcess> processes = new ArrayList<>();
+
+    ServiceMesh(LoadSettings settings, Path workDir) {
+        this.settings = settings;
+        this.dataDir = workDir.resolve("load-data");
+        this.logDir = workDir.resolve("load-logs");
+    }
+
+    void start() throws IOException, InterruptedException {
+        deleteRecursively(dataDir);
+
+        start("eureka-server", 8761, "Eureka-Server-Service", bootJar("Eureka-Server-Service", ""), List.of());
+        start("inventory-management", 8080, "inventory-management", serviceCommand("inventory-management"),
+                withTracing(database("auth_db")));
+        start("product-service", 8082, "product-service", serviceCommand("product-service"),
+                withTracing(database("product_db")));
+        start("inventory-service", 8083, "inventory-service", serviceCommand("inventory-service"),
+                withTracing(database("inventory_db")));
+        start("api-gateway", 9000, "api-gateway", bootJar("api-gateway", ""), withTracing(List.of(
+                route("AUTH-SERVICE", 8080),
+                route("STORE-SERVICE", 8080),
+                route("PRODUCT-SERVICE", 8082),
+                route("INVENTORY-SERVICE", 8083))));
+    }
+
+    /**
+     * JDBC URL of a service database, reachable from this process while the service runs.
+     */
+    String jdbcUrl(String database) {
+        return "jdbc:h2:file:" + dataDir.resolve(database) + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;AUTO_SERVER=TRUE";
+    }
+
+    private void start(String name, int port, String module, List<String> launch, List<String> args)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + settings.serviceHeap());
+        command.addAll(launch);
+        command.addAll(args);
+
+        ServiceProcess process = ServiceProcess.start(name, port, settings.backendDir().resolve(module), command, logDir);
+        processes.add(process);
+        process.awaitListening(settings.startupTimeout());
+    }
+
+    private List<String> bootJar(String module, String classifier) {
+        Path jar = settings.backendDir().resolve(module).resolve("target").resolve(module + "-0.0.1-SNAPSHOT" + classifier + ".jar");
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar + " not found; run 'mvn package -Dmaven.test.skip=true' in " + module);
+        }
+        return List.of("-jar", jar.toString());
+    }
+
+    /**
+     * Launches a service's executable jar with the H2 driver added to its loader path, since not
+     * every service packages it.
+     */
+    private List<String> serviceCommand(String module) {
+        String jar = bootJar(module, "-exec").get(1);
+        return List.of("-Dloader.path=" + h2Jar(), "-cp", jar, PROPERTIES_LAUNCHER);
+    }
+
+    private List<String> database(String name) {
+        return List.of(
+                "--spring.datasource.url=" + jdbcUrl(name),
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.flyway.enabled=false");
+    }
+
+    /**
+     * With {@code load.trace-endpoint} set, every request is sampled and exported there over OTLP.
+     */
+    private List<String> withTracing(List<String> args) {
+        if (settings.traceEndpoint().isBlank()) {
+            return args;
+        }
+        List<String> traced = new ArrayList<>(args);
+        traced.add("--management.tracing.sampling.probability=1.0");
+        traced.add("--management.otlp.tracing.export.enabled=true");
+        traced.add("--management.otlp.tracing.endpoint=" + settings.traceEndpoint());
+        return traced;
+    }
+
+    private static String route(String serviceId, int port) {
+        return "--spring.cloud.discovery.client.simple.instances[" + serviceId + "][0].uri=http://localhost:" + port;
+    }
+
+    private static String h2Jar() {
+        try {
+            return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the H2 driver jar", e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        // Gateway first, Eureka last
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            processes.get(i).close();
+        }
+    }
+}
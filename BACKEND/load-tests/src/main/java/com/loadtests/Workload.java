@@ -0,0 +1,227 @@
+package com.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds users, stores, products and stock, then runs closed-loop virtual users through the
+ * gateway. Each user repeatedly picks an operation by weight from {@code load.mix}:
+ * <ul>
+ *     <li>{@code login}: {@code POST /auth/login} and use the new token from then on</li>
+ *     <li>{@code product}: {@code POST /products} in a seeded store</li>
+ *     <li>{@code movement}: {@code PUT /inventory/{storeId}/{productId}} on a seeded product</li>
+ * </ul>
+ */
+final class Workload {
+    static final List<String> OPERATIONS = List.of("login", "product", "movement");
+
+    private static final String PASSWORD = "LoadTest123!";
+    private static final int ACCOUNTS = 10;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadSettings settings;
+    private final ServiceMesh mesh;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, RouteStats> routes = new LinkedHashMap<>();
+    private final List<Long> storeIds = new ArrayList<>();
+    private final List<long[]> stock = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    Workload(LoadSettings settings, ServiceMesh mesh) {
+        this.settings = settings;
+        this.mesh = mesh;
+        routes.put("login", new RouteStats("POST /auth/login"));
+        routes.put("product", new RouteStats("POST /products"));
+        routes.put("movement", new RouteStats("PUT /inventory/{storeId}/{productId}"));
+    }
+
+    void seed() throws IOException, InterruptedException, SQLException {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            expectOk(send(post("/auth/register", null, Map.of(
+                    "firstName", "Load",
+                    "lastName", "User" + i,
+                    "email", email(i),
+                    "password", PASSWORD,
+                    "role", "ADMIN",
+                    "phoneNumber", "+5930000000" + String.format("%02d", i)))), "register " + email(i));
+        }
+        String token = login(0);
+
+        for (int i = 0; i < settings.stores(); i++) {
+            JsonNode store = expectOk(send(post("/stores", token, Map.of(
+                    "name", "Load store " + i,
+                    "address", "Load street " + i))), "create store");
+            storeIds.add(store.get("id").asLong());
+        }
+
+        for (int i = 0; i < settings.products(); i++) {
+            long storeId = storeIds.get(i % storeIds.size());
+            JsonNode product = expectOk(send(createProduct(token, storeId)), "create product");
+            stock.add(new long[]{storeId, product.get("id").asLong()});
+        }
+
+        // There is no API for opening an inventory row, so stock goes straight into the database
+        try (Connection connection = DriverManager.getConnection(mesh.jdbcUrl("inventory_db"), "sa", "");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO inventory (store_id, product_id, quantity, version) VALUES (?, ?, ?, 0)")) {
+            for (long[] item : stock) {
+                insert.setLong(1, item[0]);
+                insert.setLong(2, item[1]);
+                insert.setInt(3, 1_000_000);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        System.out.printf("Seeded %d accounts, %d stores, %d products with stock%n", ACCOUNTS, storeIds.size(), stock.size());
+    }
+
+    /**
+     * Runs {@code load.users} virtual users for warmup plus duration; only requests started
+     * after the warmup and finished before the end are recorded.
+     */
+    List<RouteStats.Summary> run() throws InterruptedException {
+        Instant measureFrom = Instant.now().plus(settings.warmup());
+        Instant end = measureFrom.plus(settings.duration());
+        long measureFromNanos = System.nanoTime() + settings.warmup().toNanos();
+        long endNanos = measureFromNanos + settings.duration().toNanos();
+
+        System.out.printf("Measuring from %s to %s%n", measureFrom, end);
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < settings.users(); user++) {
+                int account = user % ACCOUNTS;
+                users.submit(() -> runUser(account, measureFromNanos, endNanos));
+            }
+        }
+
+        double seconds = settings.duration().toMillis() / 1000.0;
+        List<RouteStats.Summary> summaries = new ArrayList<>();
+        for (RouteStats stats : routes.values()) {
+            summaries.add(stats.summarize(seconds));
+        }
+        summaries.add(RouteStats.combine("all", seconds, routes.values().toArray(RouteStats[]::new)));
+        return summaries;
+    }
+
+    private void runUser(int account, long measureFromNanos, long endNanos) {
+        try {
+            runUserLoop(account, measureFromNanos, endNanos);
+        } catch (Exception e) {
+            System.err.println("Virtual user stopped: " + e);
+        }
+    }
+
+    private void runUserLoop(int account, long measureFromNanos, long endNanos) throws Exception {
+        String token = login(account);
+        boolean entry = false;
+        while (System.nanoTime() < endNanos) {
+            String operation = pickOperation();
+            HttpRequest request = switch (operation) {
+                case "login" -> post("/auth/login", null, Map.of("email", email(account), "password", PASSWORD));
+                case "product" -> createProduct(token, storeIds.get(ThreadLocalRandom.current().nextInt(storeIds.size())));
+                default -> {
+                    long[] item = stock.get(ThreadLocalRandom.current().nextInt(stock.size()));
+                    entry = !entry;
+                    yield HttpRequest.newBuilder(URI.create(ServiceMesh.GATEWAY + "/inventory/" + item[0] + "/" + item[1]
+                                    + "?quantity=1&userId=1&movementType=" + (entry ? "ENTRY" : "EXIT")))
+                            .timeout(REQUEST_TIMEOUT)
+                            .header("Authorization", "Bearer " + token)
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                }
+            };
+
+            long started = System.nanoTime();
+            HttpResponse<String> response = null;
+            try {
+                response = send(request);
+            } catch (IOException e) {
+                // Counted as a failed request below
+            }
+            long finished = System.nanoTime();
+
+            boolean success = response != null && response.statusCode() / 100 == 2;
+            if (success && operation.equals("login")) {
+                token = objectMapper.readTree(response.body()).get("token").asText();
+            }
+            if (started >= measureFromNanos && finished <= endNanos) {
+                routes.get(operation).record(finished - started, success);
+            }
+        }
+    }
+
+    private String pickOperation() {
+        int total = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> weight : settings.mix().entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("load.mix has no positive weights");
+    }
+
+    private String login(int account) throws IOException, InterruptedException {
+        JsonNode body = expectOk(send(post("/auth/login", null, Map.of("email", email(account), "password", PASSWORD))), "login");
+        return body.get("token").asText();
+    }
+
+    private HttpRequest createProduct(String token, long storeId) throws IOException {
+        long n = sequence.incrementAndGet();
+        return post("/products", token, Map.of(
+                "name", "Load product " + n,
+                "price", 1 + n % 100,
+                "category", "Category " + n % 10,
+                "storeId", storeId));
+    }
+
+    private HttpRequest post(String path, String token, Map<String, Object> body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(ServiceMesh.GATEWAY + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode expectOk(HttpResponse<String> response, String action) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(action + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String email(int account) {
+        return "load-user-" + account + "@example.com";
+    }
+}
@@ -1,9 +1,16 @@
 package com.productmanagement;
 
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.monitoring.MetricsConfig;
+import com.common.monitoring.VirtualThreadPinningMonitor;
+import com.common.outbox.OutboxConfiguration;
+import com.common.resilience.DownstreamResilience;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication(scanBasePackages = "com.productmanagement")
+@Import({MetricsConfig.class, VirtualThreadPinningMonitor.class, DownstreamResilience.class, DownstreamCallMetrics.class, OutboxConfiguration.class})
 public class ProductServiceApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(ProductServiceApplication.class, args);
@@ -0,0 +1,12 @@
+package com.productmanagement.cache;
+
+import com.productmanagement.model.Product;
+
+import java.util.List;
+
+/**
+ * Immutable view of the full catalog at one {@code version}. {@code etag} changes whenever the
+ * catalog does and is unique across restarts.
+ */
+public record CatalogSnapshot(long version, String etag, List<Product> products) {
+}
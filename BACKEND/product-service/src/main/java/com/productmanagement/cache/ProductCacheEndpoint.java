@@ -0,0 +1,38 @@
+package com.productmanagement.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator hook to inspect and invalidate the product cache, e.g. after products were
+ * changed directly in the database.
+ */
+@Component
+@Endpoint(id = "productcache")
+public class ProductCacheEndpoint {
+    private final ProductCatalogCache productCache;
+
+    public ProductCacheEndpoint(ProductCatalogCache productCache) {
+        this.productCache = productCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return Map.of("size", productCache.size(), "catalogVersion", productCache.version());
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        productCache.evictAll();
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector Long productId) {
+        productCache.evict(productId);
+    }
+}
@@ -0,0 +1,119 @@
+package com.productmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.productmanagement.model.Product;
+import com.productmanagement.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache for products. Single products are cached by ID; the full catalog is kept
+ * as a {@link CatalogSnapshot} that is rebuilt on the first read after any change. Writes must
+ * call {@link #evict(Long)} so both are invalidated.
+ */
+@Component
+public class ProductCatalogCache {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, Product> byId;
+    private final AtomicLong version = new AtomicLong();
+    private final long instanceId = System.currentTimeMillis();
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    // Not synchronized: the rebuild runs a query, which would pin a virtual thread under a monitor
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile CatalogSnapshot snapshot;
+
+    public ProductCatalogCache(ProductRepository productRepository, MeterRegistry meterRegistry,
+                               @Value("${product.cache.max-size:50000}") long maxSize,
+                               @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "product.by-id");
+        this.snapshotHits = Counter.builder("cache.gets").tag("cache", "product.catalog").tag("result", "hit")
+                .description("Catalog snapshot reads served without a rebuild").register(meterRegistry);
+        this.snapshotMisses = Counter.builder("cache.gets").tag("cache", "product.catalog").tag("result", "miss")
+                .description("Catalog snapshot reads that rebuilt the snapshot").register(meterRegistry);
+    }
+
+    public Optional<Product> get(Long id) {
+        // Caffeine does not store null results, so missing products are looked up again
+        return Optional.ofNullable(byId.get(id, key -> productRepository.findById(key).orElse(null)));
+    }
+
+    public CatalogSnapshot catalog() {
+        CatalogSnapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            snapshotHits.increment();
+            return current;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Drops the cached product and marks the catalog snapshot stale.
+     */
+    public void evict(Long id) {
+        byId.invalidate(id);
+        version.incrementAndGet();
+    }
+
+    public void evictAll() {
+        logger.info("Invalidating all cached products");
+        byId.invalidateAll();
+        version.incrementAndGet();
+    }
+
+    public long size() {
+        return byId.estimatedSize();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public static String etagOf(Product product) {
+        long updated = product.getUpdatedAt() == null ? 0 : product.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + product.getId() + "-" + updated + "\"";
+    }
+
+    private CatalogSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            // Read the version first: a change during the load leaves the snapshot stale, not wrong
+            long loadedVersion = version.get();
+            CatalogSnapshot current = snapshot;
+            if (current != null && current.version() == loadedVersion) {
+                snapshotHits.increment();
+                return current;
+            }
+
+            snapshotMisses.increment();
+            List<Product> products = List.copyOf(productRepository.findAll());
+            CatalogSnapshot rebuilt = new CatalogSnapshot(loadedVersion, "\"catalog-" + instanceId + "-" + loadedVersion + "\"", products);
+            snapshot = rebuilt;
+            logger.info("Rebuilt catalog snapshot v{} with {} products", loadedVersion, products.size());
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.productmanagement.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator hook to inspect and invalidate the store existence cache, e.g. after a
+ * store has been deleted in auth-service.
+ */
+@Component
+@Endpoint(id = "storecache")
+public class StoreCacheEndpoint {
+    private final StoreExistenceCache storeExistenceCache;
+
+    public StoreCacheEndpoint(StoreExistenceCache storeExistenceCache) {
+        this.storeExistenceCache = storeExistenceCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return Map.of("size", storeExistenceCache.size());
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        storeExistenceCache.invalidateAll();
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector Long storeId) {
+        storeExistenceCache.invalidate(storeId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.productmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-based cache of store IDs already validated against auth-service.
+ * Existing stores are kept for {@code product.store-cache.ttl}; stores reported as
+ * missing are cached for the shorter {@code product.store-cache.negative-ttl} so a
+ * store created shortly afterwards is picked up quickly.
+ */
+@Component
+public class StoreExistenceCache {
+    private static final Logger logger = LoggerFactory.getLogger(StoreExistenceCache.class);
+
+    private final Cache<Long, Boolean> cache;
+
+    public StoreExistenceCache(MeterRegistry meterRegistry,
+                               @Value("${product.store-cache.max-size:10000}") long maxSize,
+                               @Value("${product.store-cache.ttl:10m}") Duration ttl,
+                               @Value("${product.store-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "store.existence");
+    }
+
+    /**
+     * Returns the cached answer for the store, or empty when it has to be looked up.
+     */
+    public Optional<Boolean> lookup(Long storeId) {
+        return Optional.ofNullable(cache.getIfPresent(storeId));
+    }
+
+    public void markExists(Long storeId) {
+        cache.put(storeId, Boolean.TRUE);
+    }
+
+    public void markMissing(Long storeId) {
+        cache.put(storeId, Boolean.FALSE);
+    }
+
+    public void invalidate(Long storeId) {
+        logger.info("Invalidating cached existence of store {}", storeId);
+        cache.invalidate(storeId);
+    }
+
+    public void invalidateAll() {
+        logger.info("Invalidating all cached store existence entries");
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record ExistenceExpiry(Duration ttl, Duration negativeTtl) implements Expiry<Long, Boolean> {
+        @Override
+        public long expireAfterCreate(Long storeId, Boolean exists, long currentTime) {
+            return (exists ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long storeId, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(storeId, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long storeId, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,14 +1,29 @@
 package com.productmanagement.controller;
 
+import com.common.logging.HotPathSamplingFilter;
+import com.common.outbox.OutboxFeed;
+import com.common.outbox.OutboxService;
+import com.productmanagement.cache.CatalogSnapshot;
+import com.productmanagement.cache.ProductCatalogCache;
 import com.productmanagement.model.Product;
+import com.productmanagement.model.ProductPage;
+import com.productmanagement.model.ProductSearchCriteria;
+import com.productmanagement.model.ProductSort;
 import com.productmanagement.service.ProductService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,42 +31,120 @@ import java.util.Optional;
 @RequestMapping("/products")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ProductController {
+    private static final int MAX_EXISTS_BATCH = 1000;
+    // ✅ Replaces Spring Security's no-store on catalog reads: browsers revalidate every time (a cheap
+    // 304 with the ETag), the gateway's shared cache may answer for 30s
+    private static final CacheControl CATALOG_CACHE =
+            CacheControl.maxAge(Duration.ZERO).sMaxAge(Duration.ofSeconds(30)).cachePublic();
     private final ProductService productService;
+    private final OutboxService outboxService;
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, OutboxService outboxService) {
         this.productService = productService;
+        this.outboxService = outboxService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        logger.info("Received request to GET all products.");
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<Product>> getAllProducts(WebRequest request) {
+        logger.debug("Received request to GET all products.");
+        CatalogSnapshot catalog = productService.getCatalog();
+        // ✅ Pollers send If-None-Match and get an empty 304 until the catalog changes
+        if (request.checkNotModified(catalog.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.etag()).cacheControl(CATALOG_CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(catalog.etag()).cacheControl(CATALOG_CACHE).body(catalog.products());
+    }
+
+    /**
+     * Filtered, sorted product search with keyset pagination. Pass the returned {@code nextCursor}
+     * as {@code after} with the same {@code sort} and {@code direction} to get the next page.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ProductPage> searchProducts(@RequestParam(required = false) String category,
+                                                      @RequestParam(required = false) Long storeId,
+                                                      @RequestParam(required = false) BigDecimal minPrice,
+                                                      @RequestParam(required = false) BigDecimal maxPrice,
+                                                      @RequestParam(required = false) String namePrefix,
+                                                      @RequestParam(required = false) String q,
+                                                      @RequestParam(defaultValue = "name") String sort,
+                                                      @RequestParam(defaultValue = "asc") String direction,
+                                                      @RequestParam(required = false) String after,
+                                                      @RequestParam(defaultValue = "50") int size) {
+        ProductSort productSort;
+        try {
+            productSort = ProductSort.fromParameter(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort must be one of name, price, createdAt");
+        }
+        ProductSearchCriteria criteria = new ProductSearchCriteria(category, storeId, minPrice, maxPrice, namePrefix, q);
+        logger.debug("Received product search: {} sorted by {} {}", criteria, sort, direction);
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE)
+                .body(productService.searchProducts(criteria, productSort, "desc".equalsIgnoreCase(direction), after, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
-        logger.info("Received request to GET product with ID: {}", id);
+    public ResponseEntity<?> getProductById(@PathVariable Long id, WebRequest request) {
+        logger.debug("Received request to GET product with ID: {}", id);
         Optional<Product> product = productService.getProductById(id);
-        return product.map(ResponseEntity::ok).orElseGet(() -> {
+        if (product.isEmpty()) {
             logger.warn("Product with ID {} not found", id);
             return ResponseEntity.notFound().build();
-        });
+        }
+        String etag = ProductCatalogCache.etagOf(product.get());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CATALOG_CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CATALOG_CACHE).body(product.get());
+    }
+
+    /**
+     * Product change feed for replicas (inventory-service), authenticated with the shared
+     * {@code X-Replication-Key} rather than a user token. Pass the returned {@code nextAfter} as
+     * {@code after} on the next call.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<OutboxFeed> getProductEvents(@RequestHeader(value = "X-Replication-Key", required = false) String key,
+                                                       @RequestParam(defaultValue = "0") long after,
+                                                       @RequestParam(defaultValue = "500") int limit) {
+        if (!outboxService.isAuthorized(key)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid replication key");
+        }
+        return ResponseEntity.ok(outboxService.readFeed(ProductService.OUTBOX_AGGREGATE, after, limit));
+    }
+
+    @PostMapping("/exists")
+    public ResponseEntity<?> findExistingProducts(@RequestBody List<Long> ids) {
+        logger.info(HotPathSamplingFilter.HOT_PATH, "Received request to check existence of {} products.", ids.size());
+        if (ids.size() > MAX_EXISTS_BATCH) {
+            return ResponseEntity.badRequest().body("At most " + MAX_EXISTS_BATCH + " IDs can be checked at once");
+        }
+        return ResponseEntity.ok(productService.findExistingProductIds(ids));
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> createProduct(@Valid @RequestBody Product product) {
-        logger.info("Received request to CREATE product: {}", product);
+    public Mono<ResponseEntity<?>> createProduct(@Valid @RequestBody Product product) {
+        logger.debug("Received request to CREATE product: {}", product);
 
-        try {
-            Product createdProduct = productService.createProduct(product);
-            logger.info("Product created successfully: {}", createdProduct);
-            return ResponseEntity.ok(createdProduct);
-        } catch (Exception e) {
-            logger.error("Error while creating product: {}", e.getMessage(), e);
-            return ResponseEntity.status(500).body("Error creating product: " + e.getMessage());
-        }
+        // ✅ In reactive mode the Tomcat thread is released while auth-service and the database work
+        Mono<Product> created = productService.isReactiveWritePath()
+                ? productService.createProductReactive(product)
+                : Mono.fromCallable(() -> productService.createProduct(product));
+
+        return created.<ResponseEntity<?>>map(createdProduct -> {
+                    logger.debug("Product created successfully: {}", createdProduct);
+                    return ResponseEntity.ok(createdProduct);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error while creating product: {}", e.getMessage(), e);
+                    // ✅ Client errors (e.g. 404 for an unknown store) and 503 from the resilience layer keep
+                    // their status; anything else is a server fault
+                    int status = e instanceof ResponseStatusException rse
+                            && (rse.getStatusCode().is4xxClientError() || rse.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+                            ? rse.getStatusCode().value() : 500;
+                    return Mono.just(ResponseEntity.status(status).body("Error creating product: " + e.getMessage()));
+                });
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,29 @@
+package com.productmanagement.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a product search: the sort key of the last returned product and its ID.
+ * The sort and direction are encoded too, so a cursor cannot be replayed against another order.
+ */
+public record ProductCursor(ProductSort sort, boolean descending, String value, Long id) {
+
+    public String encode() {
+        String raw = sort.name() + "|" + (descending ? "D" : "A") + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static ProductCursor decode(String encoded) {
+        String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        // The value goes last because product names may contain the separator
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new ProductCursor(ProductSort.valueOf(parts[0]), "D".equals(parts[1]), parts[3], Long.parseLong(parts[2]));
+    }
+}
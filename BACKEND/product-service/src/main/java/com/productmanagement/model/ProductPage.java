@@ -0,0 +1,9 @@
+package com.productmanagement.model;
+
+import java.util.List;
+
+/**
+ * One page of search results. {@code nextCursor} is {@code null} on the last page.
+ */
+public record ProductPage(List<Product> items, String nextCursor) {
+}
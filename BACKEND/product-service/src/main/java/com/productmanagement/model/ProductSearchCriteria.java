@@ -0,0 +1,11 @@
+package com.productmanagement.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters for {@code GET /products/search}. {@code null} fields are not applied; name matching
+ * is case-insensitive.
+ */
+public record ProductSearchCriteria(String category, Long storeId, BigDecimal minPrice, BigDecimal maxPrice,
+                                    String namePrefix, String nameContains) {
+}
@@ -0,0 +1,31 @@
+package com.productmanagement.model;
+
+/**
+ * Sort keys supported by product search. Every sort is made unique by the product ID, which is
+ * what keyset pagination needs.
+ */
+public enum ProductSort {
+    NAME("name"), PRICE("price"), CREATED_AT("createdAt");
+
+    private final String attribute;
+
+    ProductSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Accepts the attribute name used in the API ({@code name}, {@code price}, {@code createdAt}).
+     */
+    public static ProductSort fromParameter(String value) {
+        for (ProductSort sort : values()) {
+            if (sort.attribute.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value);
+    }
+}
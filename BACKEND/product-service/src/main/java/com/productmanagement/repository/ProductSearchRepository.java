@@ -0,0 +1,20 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.model.Product;
+import com.productmanagement.model.ProductCursor;
+import com.productmanagement.model.ProductSearchCriteria;
+import com.productmanagement.model.ProductSort;
+
+import java.util.List;
+
+/**
+ * Filtered product search ordered by a {@link ProductSort} key and the product ID.
+ */
+public interface ProductSearchRepository {
+
+    /**
+     * Up to {@code limit} products strictly after {@code after}, or from the start when it is
+     * {@code null}.
+     */
+    List<Product> search(ProductSearchCriteria criteria, ProductSort sort, boolean descending, ProductCursor after, int limit);
+}
@@ -0,0 +1,97 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.model.Product;
+import com.productmanagement.model.ProductCursor;
+import com.productmanagement.model.ProductSearchCriteria;
+import com.productmanagement.model.ProductSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> search(ProductSearchCriteria criteria, ProductSort sort, boolean descending, ProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        Path<Long> id = product.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.category() != null) {
+            predicates.add(cb.equal(product.get("category"), criteria.category()));
+        }
+        if (criteria.storeId() != null) {
+            predicates.add(cb.equal(product.get("storeId"), criteria.storeId()));
+        }
+        if (criteria.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), criteria.minPrice()));
+        }
+        if (criteria.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), criteria.maxPrice()));
+        }
+        // Matches the lower(name) text_pattern_ops and trigram indexes from V2__add_product_search_indexes.sql
+        Expression<String> lowerName = cb.lower(product.get("name"));
+        if (criteria.namePrefix() != null) {
+            predicates.add(cb.like(lowerName, escape(criteria.namePrefix()) + "%", '\\'));
+        }
+        if (criteria.nameContains() != null) {
+            predicates.add(cb.like(lowerName, "%" + escape(criteria.nameContains()) + "%", '\\'));
+        }
+        if (after != null) {
+            predicates.add(after(cb, product, sort, descending, after));
+        }
+
+        Path<?> key = product.get(sort.attribute());
+        query.select(product)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static Predicate after(CriteriaBuilder cb, Root<Product> product, ProductSort sort, boolean descending, ProductCursor cursor) {
+        return switch (sort) {
+            case NAME -> keyset(cb, product.get("name"), cursor.value(), product.get("id"), cursor.id(), descending);
+            case PRICE -> keyset(cb, product.get("price"), new BigDecimal(cursor.value()), product.get("id"), cursor.id(), descending);
+            case CREATED_AT -> keyset(cb, product.get("createdAt"), LocalDateTime.parse(cursor.value()), product.get("id"), cursor.id(), descending);
+        };
+    }
+
+    /**
+     * {@code (key, id) > (value, lastId)}, or {@code <} when descending. PostgreSQL cannot turn the OR
+     * alone into an index bound, so the redundant {@code key >= value} in front of it is what lets the
+     * {@code idx_products_*_id} scan start at the cursor instead of filtering every row before it.
+     */
+    private static <T extends Comparable<? super T>> Predicate keyset(CriteriaBuilder cb, Path<T> key, T value,
+                                                                      Path<Long> id, Long lastId, boolean descending) {
+        if (descending) {
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, lastId))));
+        }
+        return cb.and(cb.greaterThanOrEqualTo(key, value),
+                cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, lastId))));
+    }
+
+    private static String escape(String value) {
+        return value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -1,5 +1,9 @@
 package com.productmanagement.security;
 
+import com.common.security.CachingJwtDecoder;
+import com.common.security.GatewayTrustedJwtDecoder;
+import com.common.security.JwtKeys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -13,7 +17,6 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -24,12 +27,12 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.KeyFactory;
 import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -42,8 +45,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").permitAll()
+                        // Replication feed: checked against X-Replication-Key in the controller
+                        .requestMatchers(HttpMethod.GET, "/products/events").permitAll()
                         .requestMatchers(HttpMethod.GET, "/products").hasAnyRole("ADMIN", "EMPLOYEE")
                         .requestMatchers(HttpMethod.GET, "/products/**").hasAnyRole("ADMIN", "EMPLOYEE")
+                        .requestMatchers(HttpMethod.POST, "/products/exists").hasAnyRole("ADMIN", "EMPLOYEE")
                         .requestMatchers(HttpMethod.POST, "/products").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/products/**").hasRole("ADMIN")
@@ -74,18 +81,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() throws Exception {
-        return NimbusJwtDecoder.withPublicKey(readPublicKey()).build();
-    }
-
-    private RSAPublicKey readPublicKey() throws Exception {
-        String key = new String(Files.readAllBytes(Paths.get("src/main/resources/public.pem")))
-                .replace("-----BEGIN PUBLIC KEY-----", "")
-                .replace("-----END PUBLIC KEY-----", "")
-                .replaceAll("\\s", "");
-        byte[] decodedKey = Base64.getDecoder().decode(key);
-        return (RSAPublicKey) KeyFactory.getInstance("RSA")
-                .generatePublic(new X509EncodedKeySpec(decodedKey));
+    public JwtDecoder jwtDecoder(@Value("${security.jwt.public-keys:src/main/resources/public.pem}") List<String> publicKeys,
+                                 @Value("${security.jwt-cache.max-size:10000}") long cacheSize,
+                                 @Value("${security.jwt-cache.max-ttl:5m}") Duration cacheTtl,
+                                 @Value("${security.gateway-trust.secret:}") String gatewaySecret) throws Exception {
+        JwtDecoder decoder = JwtKeys.decoder(JwtKeys.publicKeys(publicKeys));
+        if (!gatewaySecret.isBlank()) {
+            decoder = new GatewayTrustedJwtDecoder(decoder, gatewaySecret);
+        }
+        return cacheSize > 0 ? new CachingJwtDecoder(decoder, cacheSize, cacheTtl) : decoder;
     }
 
     private RSAPrivateKey readPrivateKey() throws Exception {
@@ -1,74 +1,192 @@
 package com.productmanagement.service;
 
+import com.common.logging.HotPathSamplingFilter;
+import com.common.monitoring.DownstreamCallMetrics;
+import com.common.outbox.OutboxService;
+import com.common.resilience.DownstreamResilience;
+import com.productmanagement.cache.CatalogSnapshot;
+import com.productmanagement.cache.ProductCatalogCache;
+import com.productmanagement.cache.StoreExistenceCache;
 import com.productmanagement.model.Product;
+import com.productmanagement.model.ProductCursor;
+import com.productmanagement.model.ProductPage;
+import com.productmanagement.model.ProductSearchCriteria;
+import com.productmanagement.model.ProductSort;
 import com.productmanagement.model.Store;
 import com.productmanagement.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ProductService {
+    public static final String OUTBOX_AGGREGATE = "product";
+
     private final ProductRepository productRepository;
     private final WebClient webClient;
+    private final StoreExistenceCache storeExistenceCache;
+    private final ProductCatalogCache productCache;
+    private final int maxSearchPageSize;
+    private final boolean reactiveWritePath;
+    private final Scheduler jdbcScheduler;
+    private final MeterRegistry meterRegistry;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
-    public ProductService(ProductRepository productRepository, WebClient.Builder webClientBuilder) {
+    public ProductService(ProductRepository productRepository, WebClient.Builder webClientBuilder,
+                          StoreExistenceCache storeExistenceCache, ProductCatalogCache productCache,
+                          @Value("${product.search.max-page-size:200}") int maxSearchPageSize,
+                          @Value("${services.auth-service.url:http://localhost:8080}") String authServiceUrl,
+                          @Value("${product.store-client.max-connections:500}") int maxConnections,
+                          @Value("${product.write-path:reactive}") String writePath,
+                          @Value("${product.write-path.jdbc-threads:10}") int jdbcThreads,
+                          DownstreamCallMetrics downstreamMetrics, DownstreamResilience resilience, MeterRegistry meterRegistry,
+                          OutboxService outboxService, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
-        this.webClient = webClientBuilder.baseUrl("http://localhost:8080").build();
+        // ✅ Sized for bursts: the default pool queues store lookups behind a handful of connections
+        ConnectionProvider connections = ConnectionProvider.builder("auth-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofSeconds(10))
+                .build();
+        this.webClient = webClientBuilder
+                .baseUrl(authServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(resilience.withTimeouts(HttpClient.create(connections))))
+                .filter(resilience.forTarget("store-service"))
+                .filter(downstreamMetrics.forTarget("store-service"))
+                .build();
+        this.reactiveWritePath = "reactive".equalsIgnoreCase(writePath);
+        // JPA is blocking; in reactive mode saves run here instead of on a request or event-loop thread
+        this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "product-jdbc");
+        this.storeExistenceCache = storeExistenceCache;
+        this.productCache = productCache;
+        this.maxSearchPageSize = maxSearchPageSize;
+        this.meterRegistry = meterRegistry;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public void validateStoreExists(Long storeId) {
-        logger.info("Validating if store with ID {} exists...", storeId);
+        logger.debug("Validating if store with ID {} exists...", storeId);
 
         try {
             // Extract JWT Token from Security Context
             String token = extractJwtToken();
-            logger.info("Extracted Bearer Token: {}", token != null ? "Token Found" : "No Token Found");
-
-            Store store = webClient.get()
-                    .uri("/stores/{storeId}", storeId)
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token) // 🔹 Send Authorization Header
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError(), response -> {
-                        logger.error("Store with ID {} not found! Response: {}", storeId, response.statusCode());
-                        return response.createException().flatMap(ex -> {
-                            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Store not found", ex);
-                        });
-                    })
-                    .onStatus(status -> status.is5xxServerError(), response -> {
-                        logger.error("Server error while contacting store-service: {}", response.statusCode());
-                        return response.createException().flatMap(ex -> {
-                            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error contacting store-service", ex);
-                        });
-                    })
-                    .bodyToMono(Store.class) // ✅ Corrected: Expecting Store Object Instead of Boolean
-                    .doOnSuccess(response -> logger.info("Received store response: {}", response))
-                    .doOnError(error -> logger.error("Error during WebClient call: {}", error.getMessage(), error))
-                    .block();  // Blocking call to make synchronous request
-
-            if (store == null || store.getId() == null) {
-                logger.warn("Store with ID {} does not exist.", storeId);
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Store does not exist");
-            }
+            logger.debug("Authorization token {}", token != null ? "found" : "missing");
 
-            logger.info("Store with ID {} validated successfully.", storeId);
+            validateStoreExists(storeId, token).block();  // Blocking call to make synchronous request
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error while validating store existence: {}", e.getMessage(), e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error contacting store-service");
         }
     }
 
+    /**
+     * Non-blocking store validation. Completes empty when the store exists and errors with a
+     * {@link ResponseStatusException} otherwise.
+     */
+    public Mono<Void> validateStoreExists(Long storeId, String token) {
+        // ✅ Timed per subscription, so the blocking variant above is measured too
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Optional<Boolean> cached = storeExistenceCache.lookup(storeId);
+            return lookupStore(storeId, token, cached)
+                    .doOnSuccess(done -> sample.stop(storeValidationTimer(cached.isPresent(), "found")))
+                    .doOnError(error -> sample.stop(storeValidationTimer(cached.isPresent(),
+                            error instanceof ResponseStatusException e && e.getStatusCode().value() == 404 ? "not_found" : "error")));
+        });
+    }
+
+    private Timer storeValidationTimer(boolean cached, String outcome) {
+        return Timer.builder("product.store.validation")
+                .description("Store existence checks before product writes")
+                .tag("cached", String.valueOf(cached))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Mono<Void> lookupStore(Long storeId, String token, Optional<Boolean> cached) {
+        if (cached.isPresent()) {
+            if (!cached.get()) {
+                logger.warn("Store with ID {} does not exist (cached).", storeId);
+                return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Store does not exist"));
+            }
+            logger.debug("Store with ID {} validated from cache.", storeId);
+            return Mono.empty();
+        }
+
+        return webClient.get()
+                .uri("/stores/{storeId}", storeId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token) // 🔹 Send Authorization Header
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(), response -> {
+                    logger.error("Store with ID {} not found! Response: {}", storeId, response.statusCode());
+                    storeExistenceCache.markMissing(storeId);
+                    return response.createException().flatMap(ex -> {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Store not found", ex);
+                    });
+                })
+                .onStatus(status -> status.is4xxClientError(), response -> {
+                    logger.error("Store lookup for ID {} rejected! Response: {}", storeId, response.statusCode());
+                    return response.createException().flatMap(ex -> {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Store not found", ex);
+                    });
+                })
+                .onStatus(status -> status.is5xxServerError(), response -> {
+                    logger.error("Server error while contacting store-service: {}", response.statusCode());
+                    return response.createException().flatMap(ex -> {
+                        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error contacting store-service", ex);
+                    });
+                })
+                .bodyToMono(Store.class) // ✅ Corrected: Expecting Store Object Instead of Boolean
+                .doOnSuccess(response -> logger.debug("Received store response: {}", response))
+                .doOnError(error -> logger.error("Error during WebClient call: {}", error.getMessage(), error))
+                .onErrorMap(error -> !(error instanceof ResponseStatusException),
+                        error -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error contacting store-service", error))
+                .flatMap(store -> {
+                    if (store.getId() == null) {
+                        return Mono.empty();
+                    }
+                    storeExistenceCache.markExists(storeId);
+                    logger.debug("Store with ID {} validated successfully.", storeId);
+                    return Mono.just(store);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Store with ID {} does not exist.", storeId);
+                    storeExistenceCache.markMissing(storeId);
+                    return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Store does not exist"));
+                }))
+                .then();
+    }
+
     /**
      * Extracts the JWT token from the Security Context.
      */
@@ -81,13 +199,39 @@ public class ProductService {
     }
 
     public Product createProduct(Product product) {
-        logger.info("Received request to CREATE product: {}", product);
+        logger.debug("Received request to CREATE product: {}", product);
 
         validateStoreExists(product.getStoreId());
+        return saveNewProduct(product);
+    }
+
+    /**
+     * Non-blocking variant of {@link #createProduct}: the store lookup does not hold a thread while
+     * auth-service answers, and the insert runs on the bounded JDBC scheduler.
+     */
+    public Mono<Product> createProductReactive(Product product) {
+        logger.debug("Received request to CREATE product: {}", product);
+        // The security context is thread-bound, so the token is read before leaving the request thread
+        String token = extractJwtToken();
+
+        return validateStoreExists(product.getStoreId(), token)
+                .then(Mono.fromCallable(() -> saveNewProduct(product)).subscribeOn(jdbcScheduler));
+    }
 
+    public boolean isReactiveWritePath() {
+        return reactiveWritePath;
+    }
+
+    private Product saveNewProduct(Product product) {
         try {
-            Product savedProduct = productRepository.save(product);
-            logger.info("Product created successfully with ID: {}", savedProduct.getId());
+            // ✅ The product and its outbox event commit together
+            Product savedProduct = transactionTemplate.execute(status -> {
+                Product saved = productRepository.saveAndFlush(product);
+                outboxService.upserted(OUTBOX_AGGREGATE, saved.getId(), saved);
+                return saved;
+            });
+            productCache.evict(savedProduct.getId());
+            logger.info(HotPathSamplingFilter.HOT_PATH, "Product created successfully with ID: {}", savedProduct.getId());
             return savedProduct;
         } catch (Exception e) {
             logger.error("Error while saving product: {}", e.getMessage(), e);
@@ -95,22 +239,31 @@ public class ProductService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        jdbcScheduler.dispose();
+    }
+
     public Product updateProduct(Long id, Product updatedProduct) {
         logger.info("Received request to UPDATE product with ID: {}", id);
 
-        return productRepository.findById(id).map(existingProduct -> {
+        Product updated = transactionTemplate.execute(status -> productRepository.findById(id).map(existingProduct -> {
             logger.info("Updating product with ID: {}", id);
             existingProduct.setName(updatedProduct.getName());
             existingProduct.setPrice(updatedProduct.getPrice());
             existingProduct.setCategory(updatedProduct.getCategory());
 
-            Product updated = productRepository.save(existingProduct);
-            logger.info("Product with ID {} updated successfully.", id);
-            return updated;
+            // Flushed first so the row lock orders concurrent updates and their events alike
+            Product saved = productRepository.saveAndFlush(existingProduct);
+            outboxService.upserted(OUTBOX_AGGREGATE, id, saved);
+            return saved;
         }).orElseThrow(() -> {
             logger.error("Product with ID {} not found.", id);
             return new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
-        });
+        }));
+        productCache.evict(id);
+        logger.info("Product with ID {} updated successfully.", id);
+        return updated;
     }
 
     public void deleteProduct(Long id) {
@@ -121,24 +274,93 @@ public class ProductService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
         }
 
-        productRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.deleteById(id);
+            productRepository.flush();
+            outboxService.deleted(OUTBOX_AGGREGATE, id);
+        });
+        productCache.evict(id);
         logger.info("Product with ID {} deleted successfully.", id);
     }
 
+    /**
+     * Seeds the outbox with the products that existed before it, once, so replicas starting from
+     * offset 0 receive the full catalog.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOutbox() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (outboxService.hasEvents(OUTBOX_AGGREGATE)) {
+                return;
+            }
+            List<Product> products = productRepository.findAll();
+            products.forEach(product -> outboxService.upserted(OUTBOX_AGGREGATE, product.getId(), product));
+            logger.info("Outbox seeded with {} existing products.", products.size());
+        });
+    }
+
     public List<Product> getAllProducts() {
-        logger.info("Fetching all products...");
-        List<Product> products = productRepository.findAll();
-        logger.info("Fetched {} products.", products.size());
-        return products;
+        return getCatalog().products();
+    }
+
+    /**
+     * Cached full catalog, rebuilt from the database only after a product changed.
+     */
+    public CatalogSnapshot getCatalog() {
+        CatalogSnapshot catalog = productCache.catalog();
+        logger.debug("Serving catalog snapshot v{} with {} products.", catalog.version(), catalog.products().size());
+        return catalog;
+    }
+
+    /**
+     * Keyset-paginated search. {@code after} is the {@code nextCursor} of the previous page and
+     * must come from a search with the same sort and direction.
+     */
+    public ProductPage searchProducts(ProductSearchCriteria criteria, ProductSort sort, boolean descending, String after, int size) {
+        if (size < 1 || size > maxSearchPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + maxSearchPageSize);
+        }
+        ProductCursor cursor = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                cursor = ProductCursor.decode(after);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+            }
+            if (cursor.sort() != sort || cursor.descending() != descending) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor belongs to a different sort order");
+            }
+        }
+
+        // One extra row tells whether there is a next page without a count query
+        List<Product> rows = productRepository.search(criteria, sort, descending, cursor, size + 1);
+        if (rows.size() <= size) {
+            return new ProductPage(rows, null);
+        }
+        List<Product> items = List.copyOf(rows.subList(0, size));
+        Product last = items.get(size - 1);
+        return new ProductPage(items, new ProductCursor(sort, descending, sortValue(last, sort), last.getId()).encode());
+    }
+
+    private static String sortValue(Product product, ProductSort sort) {
+        return switch (sort) {
+            case NAME -> product.getName();
+            case PRICE -> product.getPrice().toPlainString();
+            case CREATED_AT -> product.getCreatedAt().toString();
+        };
+    }
+
+    public List<Long> findExistingProductIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findExistingIds(ids);
     }
 
     public Optional<Product> getProductById(Long id) {
-        logger.info("Fetching product with ID: {}", id);
-        Optional<Product> product = productRepository.findById(id);
+        Optional<Product> product = productCache.get(id);
 
-        if (product.isPresent()) {
-            logger.info("Product with ID {} found: {}", id, product.get());
-        } else {
+        if (product.isEmpty()) {
             logger.warn("Product with ID {} not found.", id);
         }
 
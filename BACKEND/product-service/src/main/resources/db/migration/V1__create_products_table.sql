@@ -0,0 +1,11 @@
+-- Schema as Hibernate created it before Flyway was in use. Existing databases are baselined
+-- at version 1 (spring.flyway.baseline-on-migrate), so this only runs on an empty database.
+CREATE TABLE IF NOT EXISTS products (
+    id         BIGSERIAL PRIMARY KEY,
+    name       VARCHAR(255)   NOT NULL,
+    price      NUMERIC(38, 2) NOT NULL,
+    category   VARCHAR(255)   NOT NULL,
+    store_id   BIGINT         NOT NULL,
+    created_at TIMESTAMP(6)   NOT NULL,
+    updated_at TIMESTAMP(6)   NOT NULL
+);
@@ -0,0 +1,18 @@
+-- Indexes for GET /products/search. Each ends in id so keyset pagination on (sort key, id)
+-- is a range scan, whichever filter leads.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (name, id);
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
+CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON products (created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_category_name_id ON products (category, name, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_price_id ON products (category, price, id);
+CREATE INDEX IF NOT EXISTS idx_products_store_name_id ON products (store_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_products_store_price_id ON products (store_id, price, id);
+
+-- Case-insensitive prefix search: lower(name) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_products_lower_name_prefix ON products (lower(name) text_pattern_ops);
+
+-- Case-insensitive substring search: lower(name) LIKE '%abc%'
+CREATE INDEX IF NOT EXISTS idx_products_lower_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Transactional outbox for product changes, read by inventory-service through GET /products/events.
+-- Compacted on write: each product keeps only its latest event.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    payload TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_type_id ON outbox_events (aggregate_type, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_type_aggregate ON outbox_events (aggregate_type, aggregate_id);
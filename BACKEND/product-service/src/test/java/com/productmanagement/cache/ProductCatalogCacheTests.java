@@ -0,0 +1,64 @@
+package com.productmanagement.cache;
+
+import com.productmanagement.model.Product;
+import com.productmanagement.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogCacheTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ProductRepository repository = mock(ProductRepository.class);
+	private final ProductCatalogCache cache = new ProductCatalogCache(repository, registry, 100, Duration.ofMinutes(10));
+
+	@Test
+	void readsThroughOnceUntilEvicted() {
+		Product product = product(1L);
+		when(repository.findById(1L)).thenReturn(Optional.of(product));
+
+		assertSame(product, cache.get(1L).orElseThrow());
+		assertSame(product, cache.get(1L).orElseThrow());
+		verify(repository, times(1)).findById(1L);
+
+		cache.evict(1L);
+		cache.get(1L);
+		verify(repository, times(2)).findById(1L);
+	}
+
+	@Test
+	void rebuildsCatalogSnapshotOnlyAfterAChange() {
+		when(repository.findAll()).thenReturn(List.of(product(1L)));
+
+		CatalogSnapshot first = cache.catalog();
+		assertSame(first, cache.catalog());
+		verify(repository, times(1)).findAll();
+
+		when(repository.findAll()).thenReturn(List.of(product(1L), product(2L)));
+		cache.evict(2L);
+		CatalogSnapshot second = cache.catalog();
+
+		assertEquals(2, second.products().size());
+		assertNotEquals(first.etag(), second.etag());
+		assertEquals(1.0, registry.get("cache.gets").tag("cache", "product.catalog").tag("result", "hit").counter().count());
+		assertEquals(2.0, registry.get("cache.gets").tag("cache", "product.catalog").tag("result", "miss").counter().count());
+	}
+
+	private static Product product(Long id) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName("Product " + id);
+		return product;
+	}
+}
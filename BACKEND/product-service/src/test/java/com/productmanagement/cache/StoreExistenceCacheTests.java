@@ -0,0 +1,55 @@
+package com.productmanagement.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreExistenceCacheTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void cachesPositiveAndNegativeLookups() {
+		StoreExistenceCache cache = new StoreExistenceCache(registry, 100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+		assertTrue(cache.lookup(1L).isEmpty());
+		cache.markExists(1L);
+		cache.markMissing(2L);
+
+		assertEquals(Optional.of(true), cache.lookup(1L));
+		assertEquals(Optional.of(false), cache.lookup(2L));
+		assertEquals(2.0, registry.get("cache.gets").tag("cache", "store.existence").tag("result", "hit").functionCounter().count());
+		assertEquals(1.0, registry.get("cache.gets").tag("cache", "store.existence").tag("result", "miss").functionCounter().count());
+	}
+
+	@Test
+	void negativeEntriesExpireBeforePositiveOnes() throws InterruptedException {
+		StoreExistenceCache cache = new StoreExistenceCache(registry, 100, Duration.ofMinutes(10), Duration.ofMillis(20));
+		cache.markExists(1L);
+		cache.markMissing(2L);
+
+		Thread.sleep(100);
+
+		assertEquals(Optional.of(true), cache.lookup(1L));
+		assertTrue(cache.lookup(2L).isEmpty());
+	}
+
+	@Test
+	void invalidationRemovesEntries() {
+		StoreExistenceCache cache = new StoreExistenceCache(registry, 100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+		cache.markExists(1L);
+		cache.markExists(2L);
+
+		cache.invalidate(1L);
+		assertTrue(cache.lookup(1L).isEmpty());
+		assertEquals(Optional.of(true), cache.lookup(2L));
+
+		cache.invalidateAll();
+		assertTrue(cache.lookup(2L).isEmpty());
+	}
+}
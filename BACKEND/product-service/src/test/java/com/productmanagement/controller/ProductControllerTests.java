@@ -0,0 +1,125 @@
+package com.productmanagement.controller;
+
+import com.productmanagement.model.Product;
+import com.productmanagement.repository.ProductRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * POST /products against a stand-in auth-service that knows store 1, answers 404 for store 99
+ * and 400 for store 98.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class ProductControllerTests {
+
+	private static final HttpServer authService = startAuthService();
+
+	@DynamicPropertySource
+	static void authServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("services.auth-service.url", () -> "http://localhost:" + authService.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stopAuthService() {
+		authService.stop(0);
+	}
+
+	@Autowired
+	private ProductController productController;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@BeforeEach
+	void setUp() {
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void createsProductsInKnownStores() {
+		ResponseEntity<?> response = productController.createProduct(product(1L)).block();
+
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(1, productRepository.count());
+	}
+
+	@Test
+	void unknownStoreIsANotFound() {
+		ResponseEntity<?> response = productController.createProduct(product(99L)).block();
+
+		assertEquals(404, response.getStatusCode().value());
+		assertEquals(0, productRepository.count());
+	}
+
+	@Test
+	void rejectedStoreLookupIsAClientError() {
+		ResponseEntity<?> response = productController.createProduct(product(98L)).block();
+
+		assertEquals(404, response.getStatusCode().value());
+		assertEquals(0, productRepository.count());
+	}
+
+	@Nested
+	@TestPropertySource(properties = "product.write-path=blocking")
+	class BlockingWritePath {
+
+		@Test
+		void unknownStoreIsANotFound() {
+			ResponseEntity<?> response = productController.createProduct(product(99L)).block();
+
+			assertEquals(404, response.getStatusCode().value());
+			assertEquals(0, productRepository.count());
+		}
+	}
+
+	private static Product product(Long storeId) {
+		Product product = new Product();
+		product.setName("Lamp");
+		product.setPrice(new BigDecimal("19.90"));
+		product.setCategory("Home");
+		product.setStoreId(storeId);
+		return product;
+	}
+
+	private static HttpServer startAuthService() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/stores/1", exchange -> respond(exchange, 200, "{\"id\":1,\"name\":\"Downtown\"}"));
+			server.createContext("/stores/99", exchange -> respond(exchange, 404, "{\"error\":\"Store not found\"}"));
+			server.createContext("/stores/98", exchange -> respond(exchange, 400, "{\"error\":\"Bad request\"}"));
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+		exchange.close();
+	}
+}
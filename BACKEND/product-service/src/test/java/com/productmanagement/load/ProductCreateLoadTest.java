@@ -0,0 +1,205 @@
+package com.productmanagement.load;
+
+import com.productmanagement.ProductServiceApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares sustained {@code POST /products} throughput against an auth-service stub with a fixed
+ * store lookup latency: the blocking and reactive write paths under the same Tomcat thread limit,
+ * and platform against virtual threads with 1k+ concurrent clients. Run with {@code mvn test -Dgroups=load -DexcludedGroups=none}; the
+ * {@code load.*} system properties change latency, thread limit, clients and duration.
+ */
+@Tag("load")
+class ProductCreateLoadTest {
+
+	// Defaults keep the blocking path thread-bound well below what a single core can serve
+	private static final int STORE_LATENCY_MS = Integer.getInteger("load.store-latency-ms", 200);
+	private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcat-threads", 10);
+	private static final int CLIENTS = Integer.getInteger("load.clients", 100);
+	private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+	private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("load.measure-seconds", 15));
+	// Virtual-thread comparison: many clients against Tomcat's default 200 platform threads
+	private static final int VT_CLIENTS = Integer.getInteger("load.vt-clients", 1000);
+	// Long enough that 200 platform threads, not the CPU, are what limits the platform run
+	private static final int VT_STORE_LATENCY_MS = Integer.getInteger("load.vt-store-latency-ms", 6000);
+	private static final Duration VT_WARMUP = Duration.ofSeconds(Integer.getInteger("load.vt-warmup-seconds", 10));
+	private static final Duration VT_MEASURE = Duration.ofSeconds(Integer.getInteger("load.vt-measure-seconds", 20));
+
+	private static DisposableServer authService;
+	private static LoopResources stubLoops;
+	private static final AtomicLong nextStoreId = new AtomicLong();
+
+	private static volatile int storeLatencyMs = STORE_LATENCY_MS;
+
+	@BeforeAll
+	static void startAuthServiceStub() {
+		// Non-blocking stub, so the simulated latency never turns into a thread limit on this side
+		// Own event loops: closing an application context disposes Reactor Netty's global resources
+		stubLoops = LoopResources.create("auth-stub", 2, true);
+		authService = HttpServer.create()
+				.runOn(stubLoops)
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes.get("/stores/{id}", (request, response) -> {
+					String id = request.param("id");
+					return Mono.delay(Duration.ofMillis(storeLatencyMs))
+							.then(response.header("Content-Type", "application/json")
+									.sendString(Mono.just("{\"id\":" + id + ",\"name\":\"Store " + id + "\"}"))
+									.then());
+				}))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopAuthServiceStub() {
+		authService.disposeNow();
+		stubLoops.dispose();
+	}
+
+	@Test
+	void reactiveWritePathSustainsMoreCreatesAtNoWorseP99() throws Exception {
+		storeLatencyMs = STORE_LATENCY_MS;
+		Result blocking = run(CLIENTS, WARMUP, MEASURE, "--server.tomcat.threads.max=" + TOMCAT_THREADS, "--product.write-path=blocking");
+		Result reactive = run(CLIENTS, WARMUP, MEASURE, "--server.tomcat.threads.max=" + TOMCAT_THREADS, "--product.write-path=reactive");
+
+		report("blocking", blocking, "reactive", reactive);
+		assertTrue(blocking.errors() == 0 && reactive.errors() == 0, "load run had failed requests");
+		assertTrue(reactive.throughput() > blocking.throughput() * 1.5, "reactive path should sustain more creates/sec");
+		assertTrue(reactive.p99Millis() <= blocking.p99Millis(), "reactive path should not have a worse p99");
+	}
+
+	@Test
+	void virtualThreadsSustainMoreCreatesWithThousandsOfClients() throws Exception {
+		storeLatencyMs = VT_STORE_LATENCY_MS;
+		// Both runs use the blocking write path; only the thread model differs
+		Result platform = run(VT_CLIENTS, VT_WARMUP, VT_MEASURE, "--product.write-path=blocking", "--spring.threads.virtual.enabled=false");
+		Result virtual = run(VT_CLIENTS, VT_WARMUP, VT_MEASURE, "--product.write-path=blocking", "--spring.threads.virtual.enabled=true");
+
+		report("platform", platform, "virtual", virtual);
+		assertTrue(platform.errors() == 0 && virtual.errors() == 0, "load run had failed requests");
+		assertTrue(virtual.throughput() > platform.throughput() * 1.5, "virtual threads should sustain more creates/sec");
+		assertTrue(virtual.p99Millis() <= platform.p99Millis(), "virtual threads should not have a worse p99");
+	}
+
+	private Result run(int clients, Duration warmup, Duration measure, String... settings) throws Exception {
+		List<String> args = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--services.auth-service.url=http://localhost:" + authService.port(),
+				"--logging.level.root=WARN"));
+		args.addAll(List.of(settings));
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class, AcceptAnyToken.class)
+				.profiles("test")
+				// Command-line arguments, because builder properties rank below application.properties
+				.run(args.toArray(String[]::new))) {
+			int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+			return drive(URI.create("http://localhost:" + port + "/products"), clients, warmup, measure);
+		}
+	}
+
+	private static void report(String firstMode, Result first, String secondMode, Result second) {
+		System.out.printf("%n%-9s %10s %10s %8s%n", "mode", "creates/s", "p99 (ms)", "errors");
+		System.out.printf("%-9s %10.0f %10d %8d%n", firstMode, first.throughput(), first.p99Millis(), first.errors());
+		System.out.printf("%-9s %10.0f %10d %8d%n%n", secondMode, second.throughput(), second.p99Millis(), second.errors());
+	}
+
+	/**
+	 * Closed-loop load: {@code clients} requests in flight at all times; only requests started
+	 * after the warmup are measured.
+	 */
+	private Result drive(URI uri, int clients, Duration warmup, Duration measure) throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newFixedThreadPool(16)).build();
+		Semaphore inFlight = new Semaphore(clients);
+		ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+		AtomicInteger errors = new AtomicInteger();
+		Instant measureFrom = Instant.now().plus(warmup);
+		Instant end = measureFrom.plus(measure);
+
+		while (Instant.now().isBefore(end)) {
+			inFlight.acquire();
+			boolean measured = Instant.now().isAfter(measureFrom);
+			long started = System.nanoTime();
+			// A new store per request, so every create goes to auth-service instead of the store cache
+			String body = "{\"name\":\"Load product\",\"price\":9.99,\"category\":\"load\",\"storeId\":" + nextStoreId.incrementAndGet() + "}";
+			HttpRequest request = HttpRequest.newBuilder(uri)
+					.header("Authorization", "Bearer load-test")
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body))
+					.build();
+			client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+				if (measured) {
+					if (error != null || response.statusCode() != 200) {
+						errors.incrementAndGet();
+					} else {
+						latencies.add(System.nanoTime() - started);
+					}
+				}
+				inFlight.release();
+			});
+		}
+		inFlight.acquire(clients);
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		long p99 = sorted.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1));
+		return new Result(sorted.size() / (double) measure.toSeconds(), p99, errors.get());
+	}
+
+	private record Result(double throughput, long p99Millis, int errors) {
+	}
+
+	/**
+	 * Swaps the RSA JWT decoder for one that accepts any bearer token as an ADMIN.
+	 */
+	@TestConfiguration
+	static class AcceptAnyToken {
+		@Bean
+		static BeanPostProcessor acceptAnyTokenDecoder() {
+			JwtDecoder decoder = token -> Jwt.withTokenValue(token)
+					.header("alg", "none")
+					.subject("load-test")
+					.claim("role", "ADMIN")
+					.issuedAt(Instant.now())
+					.expiresAt(Instant.now().plusSeconds(3600))
+					.build();
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof JwtDecoder ? decoder : bean;
+				}
+			};
+		}
+	}
+}
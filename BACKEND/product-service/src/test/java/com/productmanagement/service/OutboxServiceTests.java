@@ -0,0 +1,115 @@
+package com.productmanagement.service;
+
+import com.common.outbox.OutboxEvent;
+import com.common.outbox.OutboxEventRepository;
+import com.common.outbox.OutboxFeed;
+import com.common.outbox.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productmanagement.model.Product;
+import com.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxServiceTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		outboxRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	@Test
+	void keepsOnlyTheLatestEventPerProduct() {
+		Product product = productRepository.save(product("Lamp"));
+
+		productService.updateProduct(product.getId(), product("Desk lamp"));
+		productService.updateProduct(product.getId(), product("Floor lamp"));
+
+		List<OutboxEvent> events = outboxRepository.findAll();
+		assertEquals(1, events.size());
+		assertEquals(OutboxEvent.UPSERTED, events.get(0).getEventType());
+		assertTrue(events.get(0).getPayload().contains("\"name\":\"Floor lamp\""));
+
+		productService.deleteProduct(product.getId());
+
+		events = outboxRepository.findAll();
+		assertEquals(1, events.size());
+		assertEquals(OutboxEvent.DELETED, events.get(0).getEventType());
+		assertNull(events.get(0).getPayload());
+	}
+
+	@Test
+	void eventsAreOnlyWrittenInsideTheChangeTransaction() {
+		assertThrows(IllegalTransactionStateException.class, () -> outboxService.deleted(ProductService.OUTBOX_AGGREGATE, 1L));
+	}
+
+	@Test
+	void offsetOnlyPassesSettledEvents() {
+		Product first = productRepository.save(product("Lamp"));
+		Product second = productRepository.save(product("Chair"));
+		productService.updateProduct(first.getId(), product("Desk lamp"));
+		productService.updateProduct(second.getId(), product("Arm chair"));
+
+		// Just written: served, but the offset stays put until they are older than the settle window
+		OutboxFeed unsettled = outboxService.readFeed(ProductService.OUTBOX_AGGREGATE, 0, 10);
+		assertEquals(2, unsettled.events().size());
+		assertEquals(0, unsettled.nextAfter());
+
+		OutboxService settled = new OutboxService(outboxRepository, objectMapper, "key", Duration.ZERO, 1);
+		OutboxFeed page = settled.readFeed(ProductService.OUTBOX_AGGREGATE, 0, 10);
+		assertEquals(1, page.events().size());
+		assertEquals(page.events().get(0).getId(), page.nextAfter());
+		assertEquals(second.getId(), settled.readFeed(ProductService.OUTBOX_AGGREGATE, page.nextAfter(), 10).events().get(0).getAggregateId());
+	}
+
+	@Test
+	void feedRequiresTheConfiguredKey() {
+		OutboxService keyed = new OutboxService(outboxRepository, objectMapper, "s3cret", Duration.ZERO, 10);
+		OutboxService disabled = new OutboxService(outboxRepository, objectMapper, "", Duration.ZERO, 10);
+
+		assertTrue(keyed.isAuthorized("s3cret"));
+		assertFalse(keyed.isAuthorized("wrong"));
+		assertFalse(keyed.isAuthorized(null));
+		assertFalse(disabled.isAuthorized(""));
+	}
+
+	private static Product product(String name) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(new BigDecimal("19.90"));
+		product.setCategory("home");
+		product.setStoreId(1L);
+		return product;
+	}
+}
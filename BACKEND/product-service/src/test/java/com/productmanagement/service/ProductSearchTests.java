@@ -0,0 +1,90 @@
+package com.productmanagement.service;
+
+import com.productmanagement.model.Product;
+import com.productmanagement.model.ProductPage;
+import com.productmanagement.model.ProductSearchCriteria;
+import com.productmanagement.model.ProductSort;
+import com.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSearchTests {
+
+	private static final ProductSearchCriteria ALL = new ProductSearchCriteria(null, null, null, null, null, null);
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@BeforeEach
+	void setUp() {
+		productRepository.deleteAll();
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			Product product = new Product();
+			product.setName((i % 3 == 0 ? "Apple " : "Banana ") + (i % 10));
+			// Repeated prices exercise the id tie-breaker
+			product.setPrice(BigDecimal.valueOf(i % 5 + 1));
+			product.setCategory(i % 2 == 0 ? "fruit" : "snack");
+			product.setStoreId(i < 15 ? 1L : 2L);
+			products.add(product);
+		}
+		productRepository.saveAll(products);
+	}
+
+	@Test
+	void pagesThroughEveryProductByPriceDescending() {
+		List<Product> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			ProductPage page = productService.searchProducts(ALL, ProductSort.PRICE, true, cursor, 7);
+			seen.addAll(page.items());
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertEquals(30, seen.size());
+		assertEquals(30, seen.stream().map(Product::getId).distinct().count());
+		for (int i = 1; i < seen.size(); i++) {
+			int byPrice = seen.get(i).getPrice().compareTo(seen.get(i - 1).getPrice());
+			assertTrue(byPrice < 0 || (byPrice == 0 && seen.get(i).getId() < seen.get(i - 1).getId()));
+		}
+	}
+
+	@Test
+	void combinesFilters() {
+		ProductSearchCriteria criteria = new ProductSearchCriteria("fruit", 1L, BigDecimal.valueOf(2), BigDecimal.valueOf(4), "apple", null);
+
+		ProductPage page = productService.searchProducts(criteria, ProductSort.NAME, false, null, 50);
+
+		// Store 1, even i, i % 3 == 0 -> i = 0, 6, 12; prices 1, 2, 3
+		assertEquals(List.of("Apple 2", "Apple 6"), page.items().stream().map(Product::getName).toList());
+		assertNull(page.nextCursor());
+		// Substring match: every "Banana" product, i % 3 != 0
+		assertEquals(20, productService.searchProducts(new ProductSearchCriteria(null, null, null, null, null, "ana"),
+				ProductSort.NAME, false, null, 50).items().size());
+	}
+
+	@Test
+	void rejectsCursorFromAnotherSort() {
+		String cursor = productService.searchProducts(ALL, ProductSort.NAME, false, null, 5).nextCursor();
+
+		assertThrows(ResponseStatusException.class, () -> productService.searchProducts(ALL, ProductSort.PRICE, false, cursor, 5));
+	}
+}
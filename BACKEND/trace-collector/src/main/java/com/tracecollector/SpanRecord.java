@@ -0,0 +1,58 @@
+package com.tracecollector;
+
+import com.google.protobuf.ByteString;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.trace.v1.Span;
+
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One received span, flattened from its OTLP resource/scope/span nesting.
+ */
+record SpanRecord(String traceId,
+                  String spanId,
+                  String parentSpanId,
+                  String service,
+                  String name,
+                  String kind,
+                  long startNanos,
+                  long endNanos,
+                  String status,
+                  Map<String, String> attributes) {
+
+    static SpanRecord from(String service, Span span) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (KeyValue attribute : span.getAttributesList()) {
+            attributes.put(attribute.getKey(), text(attribute.getValue()));
+        }
+        return new SpanRecord(hex(span.getTraceId()), hex(span.getSpanId()), hex(span.getParentSpanId()), service,
+                span.getName(), span.getKind().name().replace("SPAN_KIND_", ""),
+                span.getStartTimeUnixNano(), span.getEndTimeUnixNano(),
+                span.getStatus().getCode().name().replace("STATUS_CODE_", ""), attributes);
+    }
+
+    boolean isRoot() {
+        return parentSpanId.isEmpty();
+    }
+
+    double durationMillis() {
+        return (endNanos - startNanos) / 1_000_000.0;
+    }
+
+    static String text(AnyValue value) {
+        return switch (value.getValueCase()) {
+            case STRING_VALUE -> value.getStringValue();
+            case BOOL_VALUE -> String.valueOf(value.getBoolValue());
+            case INT_VALUE -> String.valueOf(value.getIntValue());
+            case DOUBLE_VALUE -> String.valueOf(value.getDoubleValue());
+            default -> value.toString().strip();
+        };
+    }
+
+    private static String hex(ByteString bytes) {
+        return HexFormat.of().formatHex(bytes.toByteArray());
+    }
+}
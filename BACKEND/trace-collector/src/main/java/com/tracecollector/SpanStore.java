@@ -0,0 +1,130 @@
+package com.tracecollector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Appends every span to a JSON-lines file and keeps the most recent traces in memory for the
+ * per-operation summary and the slowest-trace breakdown.
+ */
+final class SpanStore implements AutoCloseable {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BufferedWriter output;
+    private final Map<String, List<SpanRecord>> traces;
+    private long received;
+
+    SpanStore(Path outputFile, int maxTraces) throws IOException {
+        Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        this.output = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpanRecord>> eldest) {
+                return size() > maxTraces;
+            }
+        };
+    }
+
+    synchronized void add(List<SpanRecord> spans) throws IOException {
+        for (SpanRecord span : spans) {
+            output.write(objectMapper.writeValueAsString(span));
+            output.newLine();
+            traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+        }
+        output.flush();
+        received += spans.size();
+    }
+
+    /**
+     * Latency percentiles per {@code service / span name}, slowest p99 first.
+     */
+    synchronized String summary() {
+        Map<String, List<Double>> byOperation = new TreeMap<>();
+        traces.values().forEach(spans -> spans.forEach(span ->
+                byOperation.computeIfAbsent(span.service() + " / " + span.name(), key -> new ArrayList<>())
+                        .add(span.durationMillis())));
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d spans received, %d traces kept%n%n", received, traces.size()));
+        text.append(String.format("%-70s %7s %9s %9s %9s%n", "service / span", "count", "p50 ms", "p99 ms", "max ms"));
+        byOperation.entrySet().stream()
+                .map(entry -> {
+                    double[] sorted = entry.getValue().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+                    return new Object[] {entry.getKey(), sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                            sorted[sorted.length - 1]};
+                })
+                .sorted(Comparator.comparingDouble(row -> -(double) row[3]))
+                .forEach(row -> text.append(String.format("%-70s %7d %9.2f %9.2f %9.2f%n", row)));
+        return text.toString();
+    }
+
+    /**
+     * Span tree of the slowest trace, optionally only among traces whose root span name or
+     * {@code http.url} contains {@code rootFilter}.
+     */
+    synchronized String slowestTrace(String rootFilter) {
+        SpanRecord slowestRoot = null;
+        for (List<SpanRecord> spans : traces.values()) {
+            for (SpanRecord span : spans) {
+                if (span.isRoot() && (rootFilter == null || span.name().contains(rootFilter)
+                        || span.attributes().getOrDefault("http.url", "").contains(rootFilter))
+                        && (slowestRoot == null || span.durationMillis() > slowestRoot.durationMillis())) {
+                    slowestRoot = span;
+                }
+            }
+        }
+        if (slowestRoot == null) {
+            return "No matching trace received yet\n";
+        }
+
+        List<SpanRecord> spans = traces.get(slowestRoot.traceId());
+        Map<String, List<SpanRecord>> children = new LinkedHashMap<>();
+        spans.stream()
+                .sorted(Comparator.comparingLong(SpanRecord::startNanos))
+                .forEach(span -> children.computeIfAbsent(span.parentSpanId(), id -> new ArrayList<>()).add(span));
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Trace %s (%.2f ms)%n", slowestRoot.traceId(), slowestRoot.durationMillis()));
+        text.append(String.format("%-80s %10s %10s%n", "span", "start ms", "took ms"));
+        render(slowestRoot, slowestRoot.startNanos(), 0, children, text);
+        return text.toString();
+    }
+
+    private void render(SpanRecord span, long traceStart, int depth, Map<String, List<SpanRecord>> children, StringBuilder text) {
+        String label = "  ".repeat(depth) + span.service() + " " + span.name();
+        String url = span.attributes().get("http.url");
+        if (url != null) {
+            label += " " + url;
+        }
+        String query = span.attributes().get("jdbc.query[0]");
+        if (query != null) {
+            label += " [" + (query.length() > 40 ? query.substring(0, 40) + "…" : query) + "]";
+        }
+        text.append(String.format("%-80s %10.2f %10.2f%n", label, (span.startNanos() - traceStart) / 1_000_000.0, span.durationMillis()));
+        for (SpanRecord child : children.getOrDefault(span.spanId(), List.of())) {
+            render(child, traceStart, depth + 1, children, text);
+        }
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,126 @@
+package com.tracecollector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceResponse;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stand-in for an OpenTelemetry collector: accepts OTLP/HTTP protobuf on {@code POST /v1/traces},
+ * the applications' default {@code management.otlp.tracing.endpoint}, and writes each span as a
+ * JSON line. It also answers:
+ * <ul>
+ *     <li>{@code GET /summary} – p50/p99/max per service and span name</li>
+ *     <li>{@code GET /slowest?root=<text>} – per-hop breakdown of the slowest trace, optionally
+ *     only traces whose root span name or URL contains {@code text} (e.g. {@code /inventory})</li>
+ * </ul>
+ * The summary is also printed on shutdown.
+ */
+public class TraceCollector {
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("collector.port", 4318);
+        Path outputFile = Path.of(System.getProperty("collector.output", "target/traces/spans.jsonl"));
+        SpanStore store = new SpanStore(outputFile, Integer.getInteger("collector.max-traces", 10_000));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/traces", exchange -> receive(exchange, store));
+        server.createContext("/summary", exchange -> respond(exchange, 200, "text/plain", store.summary()));
+        server.createContext("/slowest", exchange -> respond(exchange, 200, "text/plain",
+                store.slowestTrace(queryParameter(exchange, "root"))));
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            System.out.println(store.summary());
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Could not close " + outputFile + ": " + e.getMessage());
+            }
+        }));
+        System.out.printf("Collecting OTLP traces on http://localhost:%d/v1/traces into %s%n", port, outputFile.toAbsolutePath());
+    }
+
+    private static void receive(HttpExchange exchange, SpanStore store) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "text/plain", "POST only\n");
+            return;
+        }
+        ExportTraceServiceRequest request;
+        try (InputStream body = decoded(exchange)) {
+            request = ExportTraceServiceRequest.parseFrom(body);
+        } catch (IOException e) {
+            respond(exchange, 400, "text/plain", "Expected an OTLP protobuf ExportTraceServiceRequest\n");
+            return;
+        }
+
+        List<SpanRecord> spans = new ArrayList<>();
+        for (ResourceSpans resourceSpans : request.getResourceSpansList()) {
+            String service = resourceSpans.getResource().getAttributesList().stream()
+                    .filter(attribute -> attribute.getKey().equals("service.name"))
+                    .map(KeyValue::getValue)
+                    .map(SpanRecord::text)
+                    .findFirst()
+                    .orElse("unknown");
+            for (ScopeSpans scopeSpans : resourceSpans.getScopeSpansList()) {
+                for (Span span : scopeSpans.getSpansList()) {
+                    spans.add(SpanRecord.from(service, span));
+                }
+            }
+        }
+        store.add(spans);
+
+        byte[] response = ExportTraceServiceResponse.getDefaultInstance().toByteArray();
+        exchange.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+        exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static InputStream decoded(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        return "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding")) ? new GZIPInputStream(body) : body;
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts[0].equals(name) && parts.length == 2) {
+                return URLDecoder.decode(parts[1], StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}